@@ -1,4 +1,5 @@
 plugins {
+    application
     java
 }
 
@@ -47,6 +48,159 @@ dependencies {
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine")
 }
 
+// The dispatcher evaluates the fleet with the incubating Vector API, and falls back to a scalar loop when the module is absent.
+val vectorModuleArgs = listOf("--add-modules", "jdk.incubator.vector")
+
+tasks.withType<JavaCompile> {
+    options.compilerArgs.addAll(vectorModuleArgs)
+}
+
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+    jvmArgs(vectorModuleArgs)
+}
+
+// Applies to the run task and the distribution's start scripts.
+application {
+    mainClass = "org.example.ElevatorApplication"
+    applicationDefaultJvmArgs = vectorModuleArgs
+}
+// Batch replays launch a short-lived JVM per scenario. A class data sharing archive recorded from a training run lets those
+// JVMs map the application's classes instead of loading and verifying them. On JDK 24+ the archive is an AOT cache instead,
+// which also keeps the linked classes. The archive only covers classes loaded from jars, so every run uses the jar classpath.
+val applicationMainClass = "org.example.ElevatorApplication"
+val trainingScenario = layout.projectDirectory.file("src/main/resources/scenario.txt")
+val applicationClasspath = files(tasks.jar, configurations.runtimeClasspath)
+val applicationLauncher = javaToolchains.launcherFor(java.toolchain)
+val applicationExecutable = applicationLauncher.map { it.executablePath.asFile.path }
+val isAotCache = applicationLauncher.map { it.metadata.languageVersion.canCompileOrRun(24) }
+val cdsDirectory = layout.buildDirectory.dir("cds")
+val cdsArchiveFile = cdsDirectory.map { it.file("elevator.jsa") }
+val aotConfigurationFile = cdsDirectory.map { it.file("elevator.aotconf") }
+val aotCacheFile = cdsDirectory.map { it.file("elevator.aot") }
+
+/**
+ * The JVM arguments that run with the archive, strict mode fails the launch when the archive cannot be mapped.
+ */
+fun archiveArgs(isStrict: Boolean): List<String> = if (isAotCache.get()) {
+    listOf("-XX:AOTCache=${aotCacheFile.get().asFile}") + if (isStrict) listOf("-XX:AOTMode=on") else emptyList()
+} else {
+    listOf("-XX:SharedArchiveFile=${cdsArchiveFile.get().asFile}", if (isStrict) "-Xshare:on" else "-Xshare:auto")
+}
+
+val cdsTraining by tasks.registering(JavaExec::class) {
+    description = "Runs the training scenario and records the classes it loads."
+    group = "cds"
+    javaLauncher = applicationLauncher
+    classpath = applicationClasspath
+    mainClass = applicationMainClass
+    args(trainingScenario.asFile.path)
+    jvmArgs(vectorModuleArgs)
+    jvmArgumentProviders.add(CommandLineArgumentProvider {
+        if (isAotCache.get()) {
+            listOf("-XX:AOTMode=record", "-XX:AOTConfiguration=${aotConfigurationFile.get().asFile}")
+        } else {
+            listOf("-XX:ArchiveClassesAtExit=${cdsArchiveFile.get().asFile}")
+        }
+    })
+    inputs.files(applicationClasspath)
+    inputs.file(trainingScenario)
+    outputs.file(isAotCache.flatMap { if (it) aotConfigurationFile else cdsArchiveFile })
+    doFirst { cdsDirectory.get().asFile.mkdirs() }
+}
+
+val cdsArchive by tasks.registering(Exec::class) {
+    description = "Builds the class data sharing archive, or the AOT cache on JDK 24+, from the training run."
+    group = "cds"
+    dependsOn(cdsTraining)
+    // The dynamic archive is written by the training run itself, the AOT cache is assembled from the recorded configuration.
+    onlyIf { isAotCache.get() }
+    inputs.files(aotConfigurationFile)
+    inputs.files(applicationClasspath)
+    outputs.files(aotCacheFile)
+    // The toolchain and the classpath are resolved when the task runs, not while the build is configured.
+    doFirst { executable = applicationExecutable.get() }
+    args(vectorModuleArgs)
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(
+            "-XX:AOTMode=create",
+            "-XX:AOTConfiguration=${aotConfigurationFile.get().asFile}",
+            "-XX:AOTCache=${aotCacheFile.get().asFile}",
+            "-cp", applicationClasspath.asPath,
+        )
+    })
+}
+
+val cdsLauncher by tasks.registering {
+    description = "Writes build/cds/elevator, a launcher that starts the application with the archive."
+    group = "cds"
+    dependsOn(cdsArchive)
+    val launcherFile = cdsDirectory.map { it.file("elevator") }
+    // The script embeds the launcher and the classpath, so it is regenerated when either changes.
+    inputs.files(applicationClasspath)
+    inputs.property("launcher", applicationExecutable)
+    inputs.property("isAotCache", isAotCache)
+    outputs.file(launcherFile)
+    doLast {
+        fun quote(args: List<String>) = args.joinToString(" ") { "'$it'" }
+        val jvm = listOf(applicationExecutable.get()) + vectorModuleArgs + archiveArgs(isStrict = false)
+        val application = listOf("-cp", applicationClasspath.asPath, applicationMainClass)
+        val script = launcherFile.get().asFile
+        // JAVA_OPTS passes system properties such as -Delevator.planner through to the application.
+        script.writeText(
+            """
+            |#!/bin/sh
+            |# Generated by the cdsLauncher task, rebuild the archive whenever the application changes.
+            |exec ${quote(jvm)} ${'$'}JAVA_OPTS ${quote(application)} "${'$'}@"
+            |""".trimMargin()
+        )
+        script.setExecutable(true)
+    }
+}
+
+tasks.register("startupBenchmark") {
+    description = "Compares time-to-first-dispatch and total run time with and without the archive. " +
+            "Set -PstartupBenchmark.runs and -PstartupBenchmark.scenario to change the workload."
+    group = "cds"
+    dependsOn(cdsArchive)
+    doLast {
+        val runs = (findProperty("startupBenchmark.runs") as String?)?.toInt() ?: 5
+        val scenario = (findProperty("startupBenchmark.scenario") as String?) ?: trainingScenario.asFile.path
+        val firstDispatch = Regex("""First dispatch at (\S+)""")
+        val baseCommand = listOf(applicationExecutable.get()) + vectorModuleArgs
+        val variants = linkedMapOf(
+            "without archive" to baseCommand,
+            "with archive" to baseCommand + archiveArgs(isStrict = true),
+        )
+
+        val firstDispatchMs = variants.keys.associateWith { mutableListOf<Long>() }
+        val totalMs = variants.keys.associateWith { mutableListOf<Long>() }
+        // Alternate the variants, so drift in machine load affects both equally.
+        repeat(runs) { run ->
+            for ((variant, command) in variants) {
+                val start = java.time.Instant.now()
+                val process = ProcessBuilder(command + listOf("-cp", applicationClasspath.asPath, applicationMainClass, scenario))
+                    .directory(projectDir)
+                    .redirectErrorStream(true)
+                    .start()
+                val output = process.inputStream.bufferedReader().readText()
+                val exitCode = process.waitFor()
+                val end = java.time.Instant.now()
+                if (exitCode != 0) {
+                    throw GradleException("Run ${run + 1} $variant exited with $exitCode:\n$output")
+                }
+                val dispatchedAt = firstDispatch.find(output)?.groupValues?.get(1)
+                    ?: throw GradleException("Run ${run + 1} $variant did not dispatch any request:\n$output")
+                firstDispatchMs.getValue(variant) += java.time.Duration.between(start, java.time.Instant.parse(dispatchedAt)).toMillis()
+                totalMs.getValue(variant) += java.time.Duration.between(start, end).toMillis()
+            }
+        }
+
+        fun median(values: List<Long>) = values.sorted()[values.size / 2]
+        println("Startup benchmark, median of $runs runs of $scenario (${if (isAotCache.get()) "AOT cache" else "CDS archive"}):")
+        for (variant in variants.keys) {
+            println(String.format("  %-16s time-to-first-dispatch %6d ms, total %6d ms",
+                variant, median(firstDispatchMs.getValue(variant)), median(totalMs.getValue(variant))))
+        }
+    }
+}
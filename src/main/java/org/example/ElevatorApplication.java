@@ -1,23 +1,57 @@
 package org.example;
 
+import org.example.controller.PlannerType;
 import org.example.controller.ScenarioController;
+import org.example.export.TraceFormat;
+import org.example.model.TravelModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * The elevator simulation could be represented as microservices, but it seems overkill for an exercise.
  */
 public class ElevatorApplication {
     private static final Logger LOGGER = LoggerFactory.getLogger(ElevatorApplication.class);
+    private static final Path DEFAULT_SCENARIO = Path.of("src/main/resources/scenario.txt");
 
+    /**
+     * Set the system property elevator.adaptiveWeights=true to tune the cost weights while the scenario runs.
+     * Set the system property elevator.planner to a {@link PlannerType} to compare movement strategies.
+     * Set the system property elevator.kinematic=true to move the elevators with the {@link TravelModel#MID_RISE} kinematics.
+     * Set the system property elevator.traceDirectory to stream the run's events to that directory, and elevator.traceFormat
+     * to a {@link TraceFormat} to pick the file format.
+     * @param args optionally, the path of the scenario input file.
+     */
     public static void main(String[] args) {
         LOGGER.info("********************************************************************");
         LOGGER.info("Starting elevator simulation");
 
-        ScenarioController scenarioController = new ScenarioController();
-        scenarioController.run();
+        ScenarioInput scenarioInput = ScenarioInput.read(args.length > 0 ? Path.of(args[0]) : DEFAULT_SCENARIO);
+        List<TravelModel> travelModels = Boolean.getBoolean("elevator.kinematic") ?
+                Collections.nCopies(scenarioInput.constraints().elevatorCount(), TravelModel.MID_RISE) :
+                null;
+        String traceDirectory = System.getProperty("elevator.traceDirectory");
+        ScenarioResult result = ScenarioController.builder()
+                .constraints(scenarioInput.constraints())
+                .timeSlices(scenarioInput.moveRequests().values())
+                .adaptiveWeights(Boolean.getBoolean("elevator.adaptiveWeights"))
+                .plannerType(PlannerType.valueOf(System.getProperty("elevator.planner", PlannerType.COLLECTIVE.name())))
+                .travelModels(travelModels)
+                .traceDirectory(traceDirectory == null ? null : Path.of(traceDirectory))
+                .traceFormat(TraceFormat.valueOf(System.getProperty("elevator.traceFormat", TraceFormat.CSV.name())))
+                .build()
+                .runAsync()
+                .join();
 
-        LOGGER.info("Elevator simulation finished");
+        if (result.firstDispatchedAt() != null) {
+            // Parsed by the startupBenchmark task, keep the format stable.
+            LOGGER.info("First dispatch at {}", result.firstDispatchedAt());
+        }
+        LOGGER.info("Elevator simulation finished: {}", result);
         LOGGER.info("********************************************************************");
     }
 }
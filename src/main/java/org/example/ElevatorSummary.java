@@ -0,0 +1,11 @@
+package org.example;
+
+/**
+ * ElevatorSummary is a record that summarizes the travel of one elevator during a scenario.
+ * @param elevatorId the id of the elevator
+ * @param floorsTravelled the total number of floors the elevator moved
+ * @param travelSteps the number of simulation steps the elevator moved in
+ * @param reversals the number of times the elevator started moving opposite to its previous movement
+ */
+public record ElevatorSummary(int elevatorId, int floorsTravelled, int travelSteps, int reversals) {
+}
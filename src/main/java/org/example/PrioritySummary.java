@@ -0,0 +1,20 @@
+package org.example;
+
+import org.example.model.PriorityClass;
+
+/**
+ * PrioritySummary is a record that summarizes the wait times of one priority class during a scenario.
+ * @param priority the priority class
+ * @param tripCount the number of completed trips of the class
+ * @param p50WaitMs the median time from queueing a request until the passenger is picked up
+ * @param p99WaitMs the 99th percentile wait time
+ * @param maxWaitMs the longest wait time
+ * @param latencyTargetMisses the number of trips that waited longer than their latency target
+ */
+public record PrioritySummary(PriorityClass priority,
+                              long tripCount,
+                              double p50WaitMs,
+                              double p99WaitMs,
+                              double maxWaitMs,
+                              long latencyTargetMisses) {
+}
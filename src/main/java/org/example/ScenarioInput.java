@@ -0,0 +1,103 @@
+package org.example;
+
+import org.example.model.MoveRequest;
+import org.example.model.PriorityClass;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The parsed scenario input file.
+ * @param constraints the constraints of the scenario.
+ * @param moveRequests the move requests of each time slice, ordered by time slice.
+ */
+public record ScenarioInput(@NotNull ScenarioConstraints constraints,
+                            @NotNull Map<Integer, List<MoveRequest>> moveRequests) {
+
+    /**
+     * Parse scenario input file and map the into {@link ScenarioInput}.
+     *<p>
+     * The scenario input file should be in the following format:
+     * # header
+     * # constraints
+     * # timeSlice, floor, destination[, priority[, latencyTargetMs]]
+     *<p>
+     * Each time slice represents an hour, and the current floor and destination of a request.
+     * The optional priority is a {@link PriorityClass} name and defaults to {@link PriorityClass#STANDARD}, the optional latency
+     * target is the longest the passenger should wait to be picked up, in the same wall clock milliseconds as the reported wait.
+     * No-op requests (current floor and destination are equal to 0) are randomly spread throughout each hour to simulate a real-world scenario.
+     *
+     * @param path the path of the scenario input file.
+     * @return {@link ScenarioInput}.
+     */
+    public static @NotNull ScenarioInput read(@NotNull Path path) {
+        // TreeMap is used to maintain the order of time slices.
+        Map<Integer, List<MoveRequest>> moveRequests = new TreeMap<>();
+        ScenarioConstraints constraints;
+        String inputRegex = "\\s*,\\s*";
+        try (FileReader fileReader = new FileReader(path.toFile())) {
+            BufferedReader br = new BufferedReader(fileReader);
+
+            List<MoveRequest> requests;
+            int currentTimeSlice = -1;
+
+            br.readLine(); // Skip the header line.
+
+            String line = br.readLine();
+            if (line == null) {
+                throw new UnsupportedOperationException("No data found in the file.");
+            }
+            String[] inputValues = line.trim().split(inputRegex);
+            Integer[] parsed = convertToIntArray(inputValues);
+            constraints = new ScenarioConstraints(parsed[0], parsed[1], parsed[2], parsed[3], parsed[4], parsed[5]);
+            line = br.readLine();
+            while (line != null) {
+                inputValues = line.trim().split(inputRegex);
+                if (inputValues.length < 3 || inputValues.length > 5) {
+                    throw new UnsupportedOperationException("Invalid input format. Expected 3 to 5 parameters.");
+                }
+                int timeSlice = Integer.parseInt(inputValues[0]);
+                int floor = Integer.parseInt(inputValues[1]);
+                int destination = Integer.parseInt(inputValues[2]);
+                PriorityClass priority = inputValues.length > 3 ? PriorityClass.valueOf(inputValues[3]) : PriorityClass.STANDARD;
+                Duration latencyTarget = inputValues.length > 4 ? Duration.ofMillis(Long.parseLong(inputValues[4])) : null;
+                if (currentTimeSlice != timeSlice) {
+                    currentTimeSlice = timeSlice;
+                }
+
+                // No-op requests are not filtered out during parsing, so that the intervals will have a random distribution.
+                requests = moveRequests.computeIfAbsent(currentTimeSlice, _ -> new ArrayList<>());
+                requests.add(new MoveRequest(floor, destination, priority, latencyTarget));
+                line = br.readLine();
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Error reading scenario file", e);
+        }
+
+        return new ScenarioInput(constraints, moveRequests);
+    }
+
+    /**
+     * Converts an array of strings to an array of integers.
+     * @param inputValues the input string array.
+     * @return the converted integer array.
+     */
+    private static @NotNull Integer[] convertToIntArray(@NotNull String[] inputValues) {
+        Integer[] parsed = new Integer[inputValues.length];
+        for (int i = 0; i < inputValues.length; i++) {
+            try {
+                parsed[i] = Integer.parseInt(inputValues[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number format in input values", e);
+            }
+        }
+        return parsed;
+    }
+}
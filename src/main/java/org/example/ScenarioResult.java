@@ -0,0 +1,69 @@
+package org.example;
+
+import org.example.service.CostTableStatistics;
+import org.example.service.CostWeights;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * ScenarioResult is a record that summarizes a completed scenario.
+ * @param constraints the constraints the scenario ran with
+ * @param requestCount the number of non-no-op requests that were dispatched
+ * @param elapsed the wall time from the start of the scenario until all requests were served
+ * @param meanWaitMs the mean time from queueing a request until the passenger is picked up
+ * @param meanRideMs the mean time from pickup until the passenger arrives at the target floor
+ * @param weights the cost weights at the end of the scenario, the best scoring weights when they are tuned
+ * @param elevators the travel of each elevator, ordered by elevator id
+ * @param priorities the wait times of each priority class with completed trips, ordered by priority
+ * @param costTable the lookups of the dispatcher's memoized cost table
+ * @param firstDispatchedAt the wall clock time the first trip was assigned to an elevator, or null if nothing was dispatched
+ * @param traceDroppedCount the number of trace events dropped because the trace writer fell behind, 0 without a trace
+ */
+public record ScenarioResult(@NotNull ScenarioConstraints constraints,
+                             int requestCount,
+                             @NotNull Duration elapsed,
+                             double meanWaitMs,
+                             double meanRideMs,
+                             @NotNull CostWeights weights,
+                             @NotNull List<ElevatorSummary> elevators,
+                             @NotNull List<PrioritySummary> priorities,
+                             @NotNull CostTableStatistics costTable,
+                             @Nullable Instant firstDispatchedAt,
+                             long traceDroppedCount) {
+
+    public int totalFloorsTravelled() {
+        return elevators.stream().mapToInt(ElevatorSummary::floorsTravelled).sum();
+    }
+
+    public int totalTravelSteps() {
+        return elevators.stream().mapToInt(ElevatorSummary::travelSteps).sum();
+    }
+
+    public int totalReversals() {
+        return elevators.stream().mapToInt(ElevatorSummary::reversals).sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ScenarioResult {" +
+                " requestCount=" + requestCount +
+                ", elapsedMs=" + elapsed.toMillis() +
+                ", meanWaitMs=" + String.format("%.1f", meanWaitMs) +
+                ", meanRideMs=" + String.format("%.1f", meanRideMs) +
+                ", weights=" + weights +
+                ", floorsTravelled=" + totalFloorsTravelled() +
+                ", travelSteps=" + totalTravelSteps() +
+                ", reversals=" + totalReversals() +
+                ", p99WaitMs=" + priorities.stream()
+                        .map(summary -> summary.priority() + "=" + String.format("%.1f", summary.p99WaitMs()))
+                        .toList() +
+                ", costTableHitRate=" + String.format("%.2f", costTable.hitRate()) +
+                ", costTableReuseRate=" + String.format("%.2f", costTable.reuseRate()) +
+                ", traceDroppedCount=" + traceDroppedCount +
+                " }";
+    }
+}
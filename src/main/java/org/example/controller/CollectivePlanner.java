@@ -0,0 +1,248 @@
+package org.example.controller;
+
+import org.example.model.Direction;
+import org.example.model.Elevator;
+import org.example.model.MoveRequest;
+import org.example.model.Trip;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Collective control planner, see {@link PlannerType#COLLECTIVE}.
+ * <p>
+ * Waiting passengers are hall calls with a direction. A moving car stops for a hall call in its own direction, and for a hall
+ * call in the opposite direction only at the end of its sweep. The target floor becomes a car call once the passenger boards.
+ * The plan is derived from the waiting and riding passengers on every step, so new stops join the current sweep when they are
+ * ahead of the car, and stops behind the car are served after the next reversal.
+ * <p>
+ * Every passenger is a unit of outstanding work, from the moment they are queued until they arrive at their target floor.
+ */
+class CollectivePlanner extends MovePlanner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CollectivePlanner.class);
+
+    private final List<Passenger> waiting = new ArrayList<>();
+    private final List<Passenger> riding = new ArrayList<>();
+
+    /**
+     * The direction of the current sweep, kept while the car is stopped so it continues the sweep afterward.
+     */
+    private Direction sweep = Direction.NONE;
+
+    CollectivePlanner(@NotNull Elevator elevator,
+                      int topFloor,
+                      @NotNull OutstandingWork outstandingWork,
+                      @NotNull ElevatorListener listener,
+                      boolean isMultiFloorStep) {
+        super(elevator, topFloor, outstandingWork, listener, isMultiFloorStep);
+    }
+
+    @Override
+    void queue(@NotNull Trip trip, boolean isReported) {
+        outstandingWork.add(1);
+        waiting.add(new Passenger(trip, isReported));
+        updateQueues();
+    }
+
+    @Override
+    @NotNull Direction move() {
+        int currentFloor = elevator.getCurrentFloor();
+        Direction direction = elevator.getDirection();
+        if (direction == Direction.NONE) {
+            stop(currentFloor, sweep);
+            if (sweep != Direction.NONE) {
+                elevator.setDirection(sweep);
+                step(sweep);
+            } else if (currentFloor != 1) {
+                LOGGER.info("    Elevator id {}: Returning to first floor.", elevator.getElevatorId());
+                queue(new Trip(new MoveRequest(currentFloor, 1), System.nanoTime()), false);
+            }
+        } else if (isStop(currentFloor, direction)) {
+            stop(currentFloor, direction);
+            elevator.setDirection(Direction.NONE);
+        } else {
+            step(direction);
+        }
+        updateQueues();
+        return elevator.getDirection();
+    }
+
+    /**
+     * A moving car stops to let passengers off, to pick up passengers traveling in its direction, or at the end of its sweep.
+     */
+    private boolean isStop(int floor, @NotNull Direction direction) {
+        for (Passenger passenger : riding) {
+            if (passenger.request().targetFloor() == floor) {
+                return true;
+            }
+        }
+        for (Passenger passenger : waiting) {
+            if (passenger.request().currentFloor() == floor && passenger.request().getDirection() == direction) {
+                return true;
+            }
+        }
+        boolean isLastFloor = direction == Direction.UP ? floor >= topFloor : floor <= 1;
+        return isLastFloor || !hasStopBeyond(floor, direction);
+    }
+
+    /**
+     * Lets passengers off, picks the direction of the next sweep, and boards the passengers traveling in that direction.
+     * @param floor the floor the car is stopped at.
+     * @param direction the direction the car arrived in, or the previous sweep when the car was idle.
+     */
+    private void stop(int floor, @NotNull Direction direction) {
+        long now = System.nanoTime();
+        for (Iterator<Passenger> iterator = riding.iterator(); iterator.hasNext(); ) {
+            Passenger passenger = iterator.next();
+            if (passenger.request().targetFloor() == floor) {
+                iterator.remove();
+                passenger.trip().complete(now);
+                if (passenger.isReported()) {
+                    listener.onTripCompleted(elevator, passenger.trip());
+                }
+                outstandingWork.complete(1);
+            }
+        }
+
+        Direction next = nextSweep(floor, direction);
+        if (next != sweep && sweep != Direction.NONE && next != Direction.NONE) {
+            LOGGER.debug("    Elevator id {}: Reversing {} at floor [{}]", elevator.getElevatorId(), next, floor);
+        }
+        sweep = next;
+
+        for (Iterator<Passenger> iterator = waiting.iterator(); iterator.hasNext(); ) {
+            Passenger passenger = iterator.next();
+            if (passenger.request().currentFloor() == floor && passenger.request().getDirection() == next) {
+                iterator.remove();
+                passenger.trip().pickUp(now);
+                riding.add(passenger);
+            }
+        }
+    }
+
+    /**
+     * Continue the sweep while it has stops ahead, otherwise reverse if there is any work left.
+     * An idle car without a sweep heads to the closest stop.
+     */
+    private @NotNull Direction nextSweep(int floor, @NotNull Direction direction) {
+        if (direction == Direction.NONE) {
+            for (Passenger passenger : waiting) {
+                if (passenger.request().currentFloor() == floor) {
+                    return passenger.request().getDirection();
+                }
+            }
+            int closest = closestStop(floor);
+            if (closest == floor) {
+                return Direction.NONE;
+            }
+            return closest > floor ? Direction.UP : Direction.DOWN;
+        }
+
+        if (hasStopBeyond(floor, direction) || hasWaitingAt(floor, direction)) {
+            return direction;
+        }
+        Direction opposite = direction == Direction.UP ? Direction.DOWN : Direction.UP;
+        if (hasStopBeyond(floor, opposite) || hasWaitingAt(floor, opposite)) {
+            return opposite;
+        }
+        return Direction.NONE;
+    }
+
+    private boolean hasStopBeyond(int floor, @NotNull Direction direction) {
+        for (Passenger passenger : riding) {
+            if (isBeyond(passenger.request().targetFloor(), floor, direction)) {
+                return true;
+            }
+        }
+        for (Passenger passenger : waiting) {
+            if (isBeyond(passenger.request().currentFloor(), floor, direction)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasWaitingAt(int floor, @NotNull Direction direction) {
+        for (Passenger passenger : waiting) {
+            if (passenger.request().currentFloor() == floor && passenger.request().getDirection() == direction) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the closest floor with a stop, or the current floor if there are no stops.
+     */
+    private int closestStop(int floor) {
+        int closest = floor;
+        int distance = Integer.MAX_VALUE;
+        for (Passenger passenger : riding) {
+            int stop = passenger.request().targetFloor();
+            if (Math.abs(stop - floor) < distance) {
+                closest = stop;
+                distance = Math.abs(stop - floor);
+            }
+        }
+        for (Passenger passenger : waiting) {
+            int stop = passenger.request().currentFloor();
+            if (Math.abs(stop - floor) < distance) {
+                closest = stop;
+                distance = Math.abs(stop - floor);
+            }
+        }
+        return closest;
+    }
+
+    private static boolean isBeyond(int stop, int floor, @NotNull Direction direction) {
+        return direction == Direction.UP ? stop > floor : direction == Direction.DOWN && stop < floor;
+    }
+
+    private void step(@NotNull Direction direction) {
+        int floor = direction == Direction.UP ?
+                Math.min(elevator.getCurrentFloor() + 1, topFloor) :
+                Math.max(elevator.getCurrentFloor() - 1, 1);
+        if (isMultiFloorStep) {
+            // Travel straight to the next floor the car would stop at, stops queued during the run are planned on arrival.
+            while (!isStop(floor, direction)) {
+                floor += direction == Direction.UP ? 1 : -1;
+            }
+        }
+        LOGGER.info("    Elevator id {}: Moving {} to floor [{}]", elevator.getElevatorId(), direction, floor);
+        elevator.setCurrentFloor(floor);
+    }
+
+    /**
+     * Publishes the plan, hall calls are queued by their direction, car calls by their position relative to the car.
+     */
+    private void updateQueues() {
+        int currentFloor = elevator.getCurrentFloor();
+        elevator.getUpQueue().clear();
+        elevator.getDownQueue().clear();
+        for (Passenger passenger : waiting) {
+            if (passenger.request().getDirection() == Direction.UP) {
+                elevator.getUpQueue().add(passenger.request().currentFloor());
+            } else {
+                elevator.getDownQueue().add(passenger.request().currentFloor());
+            }
+        }
+        for (Passenger passenger : riding) {
+            int targetFloor = passenger.request().targetFloor();
+            if (targetFloor >= currentFloor) {
+                elevator.getUpQueue().add(targetFloor);
+            } else {
+                elevator.getDownQueue().add(targetFloor);
+            }
+        }
+    }
+
+    private record Passenger(@NotNull Trip trip, boolean isReported) {
+        @NotNull MoveRequest request() {
+            return trip.getRequest();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.controller;
+
+import org.example.model.Direction;
+import org.example.model.Elevator;
+import org.example.model.MoveRequest;
+import org.example.model.Trip;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * The original planner, see {@link PlannerType#DIRECTIONAL_QUEUE}.
+ * <p>
+ * Every queued floor is a unit of outstanding work. Trips are picked up and completed when the car passes their floors.
+ * Multi-floor steps only apply while the car is moving, an idle car still starts with a single floor.
+ */
+class DirectionalQueuePlanner extends MovePlanner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DirectionalQueuePlanner.class);
+
+    private final List<Trip> trips = new ArrayList<>();
+
+    DirectionalQueuePlanner(@NotNull Elevator elevator,
+                            int topFloor,
+                            @NotNull OutstandingWork outstandingWork,
+                            @NotNull ElevatorListener listener,
+                            boolean isMultiFloorStep) {
+        super(elevator, topFloor, outstandingWork, listener, isMultiFloorStep);
+    }
+
+    @Override
+    void queue(@NotNull Trip trip, boolean isReported) {
+        queueRequest(trip.getRequest());
+        if (isReported) {
+            trips.add(trip);
+            updateTrips();
+        }
+    }
+
+    /**
+     * Adds a request to the elevator's queue and updates the direction.
+     * Method assumes requests are validated beforehand.
+     * @param request the request to add.
+     */
+    private void queueRequest(@NotNull MoveRequest request) {
+        // Send the elevator to the requests current floor.
+        if (elevator.getCurrentFloor() < request.currentFloor()) {
+            addStop(elevator.getUpQueue(), request.currentFloor());
+            elevator.setDirection(Direction.UP);
+        } else if (elevator.getCurrentFloor() > request.currentFloor()) {
+            addStop(elevator.getDownQueue(), request.currentFloor());
+            elevator.setDirection(Direction.DOWN);
+        }
+
+        // Adds the target floor to the queue.
+        if (request.getDirection() == Direction.UP) {
+            addStop(elevator.getUpQueue(), request.targetFloor());
+        } else if (request.getDirection() == Direction.DOWN) {
+            addStop(elevator.getDownQueue(), request.targetFloor());
+        }
+    }
+
+    @Override
+    @NotNull Direction move() {
+        if (elevator.getDirection() == Direction.UP) {
+            if (elevator.getCurrentFloor() < elevator.getUpQueue().first() && elevator.getCurrentFloor() < topFloor) {
+                int floor = isMultiFloorStep ? Math.min(elevator.getUpQueue().first(), topFloor) : elevator.getCurrentFloor() + 1;
+                LOGGER.info("    Elevator id {}: Moving UP to floor [{}]", elevator.getElevatorId(), floor);
+                elevator.setCurrentFloor(floor);
+            } else {
+                removeStop(elevator.getUpQueue());
+                elevator.setDirection(Direction.NONE);
+            }
+        } else if (elevator.getDirection() == Direction.DOWN) {
+            if (elevator.getCurrentFloor() > elevator.getDownQueue().last() && elevator.getCurrentFloor() > 1) {
+                int floor = isMultiFloorStep ? Math.max(elevator.getDownQueue().last(), 1) : elevator.getCurrentFloor() - 1;
+                LOGGER.info("    Elevator id {}: Moving DOWN to floor [{}]", elevator.getElevatorId(), floor);
+                elevator.setCurrentFloor(floor);
+            } else {
+                removeStop(elevator.getDownQueue());
+                elevator.setDirection(Direction.NONE);
+            }
+        } else {
+            removeStop(elevator.getUpQueue());
+            removeStop(elevator.getDownQueue());
+
+            if (!elevator.getUpQueue().isEmpty() && !elevator.getDownQueue().isEmpty()) {
+                Direction direction;
+                if (elevator.getUpQueue().size() > elevator.getDownQueue().size()) {
+                    direction = elevator.getUpQueue().first() > elevator.getCurrentFloor() ? Direction.UP : Direction.DOWN;
+                } else {
+                    direction = elevator.getDownQueue().last() < elevator.getCurrentFloor() ? Direction.DOWN : Direction.UP;
+                }
+                elevator.setDirection(direction);
+            } else if (!elevator.getUpQueue().isEmpty()) {
+                Direction direction = elevator.getUpQueue().first() > elevator.getCurrentFloor() ? Direction.UP : Direction.DOWN;
+                elevator.setDirection(direction);
+            } else if (!elevator.getDownQueue().isEmpty()) {
+                Direction direction = elevator.getDownQueue().last() < elevator.getCurrentFloor() ? Direction.DOWN : Direction.UP;
+                elevator.setDirection(direction);
+            } else {
+                if (elevator.getCurrentFloor() != 1) {
+                    LOGGER.info("    Elevator id: Returning to first floor.");
+                    queueRequest(new MoveRequest(elevator.getCurrentFloor(), 1));
+                }
+            }
+            if (elevator.getDirection() == Direction.UP) {
+                elevator.setCurrentFloor(elevator.getCurrentFloor() + 1);
+            } else if (elevator.getDirection() == Direction.DOWN) {
+                elevator.setCurrentFloor(elevator.getCurrentFloor() - 1);
+            }
+        }
+        updateTrips();
+        return elevator.getDirection();
+    }
+
+    /**
+     * Picks up passengers waiting on the current floor, and completes the trips that end on it.
+     */
+    private void updateTrips() {
+        if (trips.isEmpty()) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        int currentFloor = elevator.getCurrentFloor();
+        trips.removeIf(trip -> {
+            if (!trip.isPickedUp()) {
+                if (trip.getRequest().currentFloor() == currentFloor) {
+                    trip.pickUp(now);
+                }
+                return false;
+            }
+            if (trip.getRequest().targetFloor() == currentFloor) {
+                trip.complete(now);
+                listener.onTripCompleted(elevator, trip);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void addStop(@NotNull TreeSet<Integer> queue, int floor) {
+        if (queue.add(floor)) {
+            outstandingWork.add(1);
+        }
+    }
+
+    private void removeStop(@NotNull TreeSet<Integer> queue) {
+        if (queue.remove(elevator.getCurrentFloor())) {
+            outstandingWork.complete(1);
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package org.example.controller;
 
 import lombok.Getter;
+import org.example.ElevatorSummary;
 import org.example.model.Direction;
 import org.example.model.Elevator;
+import org.example.model.FleetState;
 import org.example.model.MoveRequest;
+import org.example.model.TravelModel;
+import org.example.model.Trip;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.example.controller.ScenarioController.INTERVAL_SLEEP_TIME_MS;
@@ -17,6 +23,11 @@ import static org.example.controller.ScenarioController.INTERVAL_SLEEP_TIME_MS;
  * <p>
  * The elevator moves to the requested floor and updates its direction accordingly.
  * It also handles the unloading of occupants and manages the request queue.
+ * The order the stops are served in is decided by the elevator's {@link PlannerType}.
+ * Without a {@link TravelModel} every step moves one floor and takes a fixed tick. With a travel model the car moves straight
+ * to its next stop, and the step takes the travel time of the run plus the door dwell, in simulated time. The car is published
+ * at its next stop when the run starts, the dispatcher treats it as committed to the run.
+ * An idle car waits until work is queued, for at most a {@link #TICK} so it notices the end of the scenario.
  * <p>
  * Note:
  *     It would be more accurate to have FloorRequestControllers to enable queues for each floor.
@@ -24,11 +35,25 @@ import static org.example.controller.ScenarioController.INTERVAL_SLEEP_TIME_MS;
  *     assigning an Elevator. The ElevatorRequestController would only request as many MoveRequests from a FloorRequestController
  *     as the elevator can handle.
  */
-public class ElevatorController extends Thread {
+public class ElevatorController implements Runnable {
     private static final Logger LOGGER = LoggerFactory.getLogger(ElevatorController.class);
+    static final Duration TICK = Duration.ofMillis(INTERVAL_SLEEP_TIME_MS/8);
 
-    private final int topFloor;
     private final AtomicBoolean isScenarioRunning;
+    private final FleetState fleetState;
+    private final MovePlanner planner;
+    private final ElevatorListener listener;
+    private final @Nullable TravelModel travelModel;
+
+    /**
+     * The direction of the last floor change, used to count reversals.
+     */
+    private Direction travelDirection = Direction.NONE;
+
+    /**
+     * Whether work was queued since the last step, so an idle car does not wait for work it already has.
+     */
+    private boolean isWorkQueued;
 
     @Getter
     private final Elevator elevator;
@@ -36,99 +61,146 @@ public class ElevatorController extends Thread {
     public ElevatorController(int elevatorId,
                               int topFloor,
                               @NotNull AtomicBoolean isScenarioRunning) {
+        this(elevatorId, topFloor, new FleetState(elevatorId + 1), isScenarioRunning);
+    }
+
+    public ElevatorController(int elevatorId,
+                              int topFloor,
+                              @NotNull FleetState fleetState,
+                              @NotNull AtomicBoolean isScenarioRunning) {
+        this(elevatorId, topFloor, fleetState, new OutstandingWork(), ElevatorListener.NONE, PlannerType.COLLECTIVE, null, isScenarioRunning);
+    }
+
+    /**
+     * @param fleetState the shared fleet state, the elevator publishes its state into the slot matching its id.
+     * @param outstandingWork the scenario's work tracker.
+     * @param listener receives the elevator's events.
+     * @param plannerType the strategy that orders the elevator's stops.
+     * @param travelModel the kinematics of the car, or null to move one floor per tick.
+     */
+    public ElevatorController(int elevatorId,
+                              int topFloor,
+                              @NotNull FleetState fleetState,
+                              @NotNull OutstandingWork outstandingWork,
+                              @NotNull ElevatorListener listener,
+                              @NotNull PlannerType plannerType,
+                              @Nullable TravelModel travelModel,
+                              @NotNull AtomicBoolean isScenarioRunning) {
         this.elevator = new Elevator(elevatorId);
-        this.topFloor = topFloor;
+        this.fleetState = fleetState;
+        this.planner = plannerType.create(elevator, topFloor, outstandingWork, listener, travelModel != null);
+        this.listener = listener;
+        this.travelModel = travelModel;
         this.isScenarioRunning = isScenarioRunning;
+        fleetState.update(elevator);
     }
 
     /**
-     * Adds a request to the elevator's queue and updates the direction.
+     * Queues the trip's request, and tracks the trip until the passenger arrives at the target floor.
+     * @param trip the trip to assign to the elevator.
+     */
+    public synchronized void assign(@NotNull Trip trip) {
+        planner.queue(trip, true);
+        fleetState.update(elevator);
+        listener.onTripAssigned(elevator, trip);
+        isWorkQueued = true;
+        notifyAll();
+    }
+
+    /**
+     * Adds a request to the elevator's queue, the request is not reported to the listener.
      * Method assumes requests are validated beforehand.
      * @param request the request to add.
      */
-    public void queueRequest(@NotNull MoveRequest request) {
-        // Send the elevator to the requests current floor.
-        if (elevator.getCurrentFloor() < request.currentFloor()) {
-            elevator.getUpQueue().add(request.currentFloor());
-            elevator.setDirection(Direction.UP);
-        } else if (elevator.getCurrentFloor() > request.currentFloor()) {
-            elevator.getDownQueue().add(request.currentFloor());
-            elevator.setDirection(Direction.DOWN);
+    public synchronized void queueRequest(@NotNull MoveRequest request) {
+        planner.queue(new Trip(request, System.nanoTime()), false);
+        fleetState.update(elevator);
+        isWorkQueued = true;
+        notifyAll();
+    }
+
+    /**
+     * @return the elevator's travel so far, read under the controller's lock.
+     */
+    public synchronized @NotNull ElevatorSummary summarize() {
+        return new ElevatorSummary(elevator.getElevatorId(), elevator.getFloorsTravelled(), elevator.getTravelSteps(), elevator.getReversals());
+    }
+
+    /**
+     * Moves the elevator if applicable, unloads occupants, and updates the direction.
+     */
+    public synchronized @NotNull Direction move() {
+        step();
+        return elevator.getDirection();
+    }
+
+    /**
+     * Moves the elevator.
+     * @return the duration of the step, zero when the car is idle.
+     */
+    private synchronized @NotNull Duration step() {
+        isWorkQueued = false;
+        int previousFloor = elevator.getCurrentFloor();
+        Direction previousDirection = elevator.getDirection();
+        Direction direction = planner.move();
+        recordTravel(previousFloor);
+        fleetState.update(elevator);
+        if (elevator.getCurrentFloor() != previousFloor || direction != previousDirection) {
+            listener.onStep(elevator);
         }
 
-        // Adds the target floor to the queue.
-        if (request.getDirection() == Direction.UP) {
-            elevator.getUpQueue().add(request.targetFloor());
-        } else if (request.getDirection() == Direction.DOWN) {
-            elevator.getDownQueue().add(request.targetFloor());
+        boolean isStopped = previousDirection != Direction.NONE && direction == Direction.NONE;
+        if (direction == Direction.NONE && !isStopped && elevator.getUpQueue().isEmpty() && elevator.getDownQueue().isEmpty()) {
+            return Duration.ZERO;
         }
+        if (travelModel == null) {
+            return TICK;
+        }
+        int floors = Math.abs(elevator.getCurrentFloor() - previousFloor);
+        return ScenarioController.toWallDuration(travelModel.stepSeconds(floors, isStopped));
     }
 
     /**
-     * Moves the elevator if applicable, unloads occupants, and updates the direction.
+     * Waits until work is queued, or for one tick so the run loop rechecks whether the scenario is still running.
      */
-    public @NotNull Direction move() {
-        if (elevator.getDirection() == Direction.UP) {
-            if (elevator.getCurrentFloor() < elevator.getUpQueue().first() && elevator.getCurrentFloor() < topFloor) {
-                LOGGER.info("    Elevator id {}: Moving UP to floor [{}]", elevator.getElevatorId(), elevator.getCurrentFloor() + 1);
-                elevator.setCurrentFloor(elevator.getCurrentFloor() + 1);
-            } else {
-                elevator.getUpQueue().remove(elevator.getCurrentFloor());
-                elevator.setDirection(Direction.NONE);
-            }
-        } else if (elevator.getDirection() == Direction.DOWN) {
-            if (elevator.getCurrentFloor() > elevator.getDownQueue().last() && elevator.getCurrentFloor() > 1) {
-                LOGGER.info("    Elevator id {}: Moving DOWN to floor [{}]", elevator.getElevatorId(), elevator.getCurrentFloor() - 1);
-                elevator.setCurrentFloor(elevator.getCurrentFloor() - 1);
-            } else {
-                elevator.getDownQueue().remove(elevator.getCurrentFloor());
-                elevator.setDirection(Direction.NONE);
-            }
-        } else {
-            elevator.getUpQueue().remove(elevator.getCurrentFloor());
-            elevator.getDownQueue().remove(elevator.getCurrentFloor());
-
-            if (!elevator.getUpQueue().isEmpty() && !elevator.getDownQueue().isEmpty()) {
-                Direction direction;
-                if (elevator.getUpQueue().size() > elevator.getDownQueue().size()) {
-                    direction = elevator.getUpQueue().first() > elevator.getCurrentFloor() ? Direction.UP : Direction.DOWN;
-                } else {
-                    direction = elevator.getDownQueue().last() < elevator.getCurrentFloor() ? Direction.DOWN : Direction.UP;
-                }
-                elevator.setDirection(direction);
-            } else if (!elevator.getUpQueue().isEmpty()) {
-                Direction direction = elevator.getUpQueue().first() > elevator.getCurrentFloor() ? Direction.UP : Direction.DOWN;
-                elevator.setDirection(direction);
-            } else if (!elevator.getDownQueue().isEmpty()) {
-                Direction direction = elevator.getDownQueue().last() < elevator.getCurrentFloor() ? Direction.DOWN : Direction.UP;
-                elevator.setDirection(direction);
-            } else {
-                if (elevator.getCurrentFloor() != 1) {
-                    LOGGER.info("    Elevator id: Returning to first floor.");
-                    queueRequest(new MoveRequest(elevator.getCurrentFloor(), 1));
-                }
-            }
-            if (elevator.getDirection() == Direction.UP) {
-                elevator.setCurrentFloor(elevator.getCurrentFloor() + 1);
-            } else if (elevator.getDirection() == Direction.DOWN) {
-                elevator.setCurrentFloor(elevator.getCurrentFloor() - 1);
-            }
+    private synchronized void awaitWork() throws InterruptedException {
+        if (!isWorkQueued) {
+            wait(TICK.toMillis());
         }
-        return elevator.getDirection();
+    }
+
+    private void recordTravel(int previousFloor) {
+        int currentFloor = elevator.getCurrentFloor();
+        if (currentFloor == previousFloor) {
+            return;
+        }
+
+        Direction direction = currentFloor > previousFloor ? Direction.UP : Direction.DOWN;
+        if (travelDirection != Direction.NONE && travelDirection != direction) {
+            elevator.setReversals(elevator.getReversals() + 1);
+        }
+        travelDirection = direction;
+        elevator.setFloorsTravelled(elevator.getFloorsTravelled() + Math.abs(currentFloor - previousFloor));
+        elevator.setTravelSteps(elevator.getTravelSteps() + 1);
     }
 
     @Override
     public void run() {
         LOGGER.info("Elevator id {}: started", elevator.getElevatorId());
         while (isScenarioRunning.get() || !elevator.getUpQueue().isEmpty() || !elevator.getDownQueue().isEmpty()) {
-            move();
+            Duration duration = step();
 
             try {
+                if (duration.isZero()) {
+                    awaitWork();
+                    continue;
+                }
+
                 // Each interval sleep represents an hour, the interval sleep time is a subset of the hour.
                 // The sleeps could be adjusted to be more realistic, but this is a simulation for demonstration purposes.
 
                 //noinspection BusyWait
-                Thread.sleep(INTERVAL_SLEEP_TIME_MS/8);
+                Thread.sleep(duration);
             } catch (InterruptedException e) {
                 LOGGER.error("Elevator id {}: interrupted", elevator.getElevatorId(), e);
                 Thread.currentThread().interrupt();
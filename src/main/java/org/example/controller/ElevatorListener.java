@@ -0,0 +1,35 @@
+package org.example.controller;
+
+import org.example.model.Elevator;
+import org.example.model.Trip;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives events from an {@link ElevatorController}.
+ * Methods are called on the elevator's worker thread while the controller holds its lock, implementations must be quick.
+ */
+public interface ElevatorListener {
+    ElevatorListener NONE = new ElevatorListener() {
+    };
+
+    /**
+     * Called after a step that changed the elevator's floor or direction, the elevator holds its state until the next call.
+     * @param elevator the elevator that moved.
+     */
+    default void onStep(@NotNull Elevator elevator) {
+    }
+
+    /**
+     * @param elevator the elevator the dispatcher assigned the trip to.
+     * @param trip the assigned trip.
+     */
+    default void onTripAssigned(@NotNull Elevator elevator, @NotNull Trip trip) {
+    }
+
+    /**
+     * @param elevator the elevator that delivered the passenger.
+     * @param trip the completed trip.
+     */
+    default void onTripCompleted(@NotNull Elevator elevator, @NotNull Trip trip) {
+    }
+}
@@ -1,78 +1,103 @@
 package org.example.controller;
 
 import org.example.model.Direction;
+import org.example.model.FleetState;
 import org.example.model.MoveRequest;
+import org.example.model.Trip;
 import org.example.service.ElevatorControllerService;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.OptionalInt;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.example.controller.ScenarioController.INTERVAL_SLEEP_TIME_MS;
 
 /**
  * Process move requests and control interactions with the request queue.
+ * Waiting requests are dispatched by priority class, see {@link PriorityRequestQueue}.
  */
-public class ElevatorRequestController extends Thread {
+public class ElevatorRequestController implements Runnable {
     private static final Logger LOGGER = LoggerFactory.getLogger(ElevatorRequestController.class);
 
+    /**
+     * A waiting request is promoted one priority class for every two polls it waits, so aging runs in the same time base as the
+     * polls. With the default poll interval that is one interval sleep, a fifth of a simulated hour.
+     */
+    private static final int POLLS_PER_AGING_STEP = 2;
+
+    static final Duration DEFAULT_POLL_INTERVAL = Duration.ofMillis(INTERVAL_SLEEP_TIME_MS / 2);
+
+    /**
+     * The shortest time between two polls, a shorter interval keeps the dispatcher thread spinning on an empty queue.
+     */
+    static final Duration MIN_POLL_INTERVAL = ElevatorController.TICK;
+
     private final ElevatorControllerService elevatorControllerService;
-    private final BlockingQueue<MoveRequest> controllerQueue;
+    private final PriorityRequestQueue controllerQueue;
     private final List<ElevatorController> elevatorControllers;
+    private final FleetState fleetState;
+    private final OutstandingWork outstandingWork;
     private final AtomicBoolean isScenarioRunning;
+    private final Duration pollInterval;
 
     public ElevatorRequestController(@NotNull List<ElevatorController> elevatorControllers,
-                                     int costPerFloor,
-                                     int costPerStop,
+                                     @NotNull FleetState fleetState,
+                                     @NotNull ElevatorControllerService elevatorControllerService,
+                                     @NotNull OutstandingWork outstandingWork,
                                      @NotNull AtomicBoolean isScenarioRunning) {
-        this.elevatorControllers = elevatorControllers;
-        this.isScenarioRunning = isScenarioRunning;
-        this.elevatorControllerService = new ElevatorControllerService(costPerFloor, costPerStop);
-        this.controllerQueue = new LinkedBlockingQueue<>();
+        this(elevatorControllers, fleetState, elevatorControllerService, outstandingWork, DEFAULT_POLL_INTERVAL, isScenarioRunning);
     }
 
     /**
-     * Adds all non-no-op requests to the controller queue.
-     * @param requests the list of requests to add.
+     * @param pollInterval the time between two checks of the request queue, in the same time base as the elevators' steps.
+     *                     Raised to {@link #MIN_POLL_INTERVAL} if shorter.
      */
-    public void queueRequests(@NotNull List<MoveRequest> requests) {
-        controllerQueue.addAll(requests.stream().filter(request -> request.getDirection() != Direction.NONE).toList());
+    public ElevatorRequestController(@NotNull List<ElevatorController> elevatorControllers,
+                                     @NotNull FleetState fleetState,
+                                     @NotNull ElevatorControllerService elevatorControllerService,
+                                     @NotNull OutstandingWork outstandingWork,
+                                     @NotNull Duration pollInterval,
+                                     @NotNull AtomicBoolean isScenarioRunning) {
+        this.pollInterval = pollInterval.compareTo(MIN_POLL_INTERVAL) < 0 ? MIN_POLL_INTERVAL : pollInterval;
+        this.elevatorControllers = elevatorControllers;
+        this.fleetState = fleetState;
+        this.outstandingWork = outstandingWork;
+        this.isScenarioRunning = isScenarioRunning;
+        this.elevatorControllerService = elevatorControllerService;
+        this.controllerQueue = new PriorityRequestQueue(this.pollInterval.multipliedBy(POLLS_PER_AGING_STEP));
     }
 
     /**
-     * @return true if all requests have been processed, false otherwise.
+     * Adds all non-no-op requests to the controller queue.
+     * @param requests the list of requests to add.
+     * @return the number of requests added.
      */
-    public boolean isDone() {
-        if (!controllerQueue.isEmpty()) {
-            return false;
+    public int queueRequests(@NotNull List<MoveRequest> requests) {
+        List<MoveRequest> moveRequests = requests.stream().filter(request -> request.getDirection() != Direction.NONE).toList();
+        long now = System.nanoTime();
+        outstandingWork.add(moveRequests.size());
+        for (MoveRequest request : moveRequests) {
+            controllerQueue.add(new Trip(request, now));
         }
-
-        for (ElevatorController elevatorController : elevatorControllers) {
-            if (!elevatorController.getElevator().getUpQueue().isEmpty() || !elevatorController.getElevator().getDownQueue().isEmpty()) {
-                return false;
-            }
-        }
-
-        return true;
+        return moveRequests.size();
     }
 
     /**
-     * Assign an elevator to a move request.
-     * @param request the request to assign.
+     * Assign an elevator to a trip.
+     * @param trip the trip to assign.
      */
-    private synchronized boolean assignElevator(@NotNull MoveRequest request) {
-        Optional<ElevatorController> bestElevatorController = elevatorControllerService.findBestElevator(elevatorControllers, request);
-        if (bestElevatorController.isEmpty()) {
+    private synchronized boolean assignElevator(@NotNull Trip trip) {
+        OptionalInt bestElevatorId = elevatorControllerService.findBestElevator(fleetState, trip);
+        if (bestElevatorId.isEmpty()) {
             return false;
         }
 
-        ElevatorController elevatorController = bestElevatorController.get();
-        elevatorController.queueRequest(request);
+        ElevatorController elevatorController = elevatorControllers.get(bestElevatorId.getAsInt());
+        elevatorController.assign(trip);
         return true;
     }
 
@@ -80,17 +105,20 @@ public class ElevatorRequestController extends Thread {
     public void run() {
         LOGGER.info("ElevatorController started");
         while (isScenarioRunning.get() || !controllerQueue.isEmpty()) {
-            MoveRequest request = controllerQueue.peek();
-            if (request != null) {
+            Trip trip = controllerQueue.peek(System.nanoTime());
+            if (trip != null) {
+                MoveRequest request = trip.getRequest();
                 if (request.getDirection() == Direction.NONE) {
                     LOGGER.debug("No-op move request, skipping.");
-                    controllerQueue.poll();
+                    controllerQueue.remove(trip);
                     continue;
                 }
 
-                if (assignElevator(request)) {
+                if (assignElevator(trip)) {
                     LOGGER.info("Elevator assigned to request {}", request);
-                    controllerQueue.poll();
+                    controllerQueue.remove(trip);
+                    // The elevator's stops were added by the assignment, so the request itself is complete.
+                    outstandingWork.complete(1);
                 } else {
                     LOGGER.info("No elevator is available, waiting for one to become available.");
                 }
@@ -100,7 +128,7 @@ public class ElevatorRequestController extends Thread {
                 // The sleeps could be adjusted to be more realistic, but this is a simulation for demonstration purposes.
 
                 //noinspection BusyWait
-                Thread.sleep(INTERVAL_SLEEP_TIME_MS/2);
+                Thread.sleep(pollInterval);
             } catch (InterruptedException e) {
                 LOGGER.error("ElevatorController interrupted", e);
                 Thread.currentThread().interrupt();
@@ -0,0 +1,39 @@
+package org.example.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.model.Direction;
+import org.example.model.Elevator;
+import org.example.model.Trip;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Decides the order an elevator serves its stops in.
+ * <p>
+ * Planners are called by the {@link ElevatorController} while it holds its lock.
+ * A planner keeps the elevator's up and down queues in sync with its plan, they are published to the dispatcher.
+ */
+@RequiredArgsConstructor
+abstract class MovePlanner {
+    protected final Elevator elevator;
+    protected final int topFloor;
+    protected final OutstandingWork outstandingWork;
+    protected final ElevatorListener listener;
+
+    /**
+     * Whether a step moves the car straight to its next stop instead of a single floor.
+     */
+    protected final boolean isMultiFloorStep;
+
+    /**
+     * Adds a trip to the plan.
+     * @param trip the trip to add.
+     * @param isReported whether the trip is reported to the listener once it completes.
+     */
+    abstract void queue(@NotNull Trip trip, boolean isReported);
+
+    /**
+     * Moves the elevator one floor, or to its next stop for multi-floor steps, or stops at the current floor.
+     * @return the direction of the elevator after the step, {@link Direction#NONE} while the elevator is stopped.
+     */
+    abstract @NotNull Direction move();
+}
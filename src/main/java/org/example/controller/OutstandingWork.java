@@ -0,0 +1,49 @@
+package org.example.controller;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the work that is left in a scenario, so completion is signaled instead of polled.
+ * <p>
+ * A unit of work is either a request waiting in the controller queue, or a stop queued on an elevator.
+ * Work must be added before the work that produced it is completed, so the count never drops to zero early.
+ * The scenario is done once the input is finished and the count reaches zero.
+ */
+public class OutstandingWork {
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicBoolean isInputFinished = new AtomicBoolean(false);
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    public void add(int units) {
+        outstanding.addAndGet(units);
+    }
+
+    public void complete(int units) {
+        if (outstanding.addAndGet(-units) == 0 && isInputFinished.get()) {
+            done.complete(null);
+        }
+    }
+
+    /**
+     * Signals that no more requests will be queued.
+     */
+    public void finishInput() {
+        isInputFinished.set(true);
+        if (outstanding.get() == 0) {
+            done.complete(null);
+        }
+    }
+
+    /**
+     * The future is completed by the thread that completes the last unit of work, usually an elevator holding its lock.
+     * Attach slow or blocking dependents with an async method.
+     * @return a future that completes once the input is finished and all work has been completed.
+     */
+    public @NotNull CompletableFuture<Void> onDone() {
+        return done;
+    }
+}
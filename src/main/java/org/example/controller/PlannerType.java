@@ -0,0 +1,31 @@
+package org.example.controller;
+
+import org.example.model.Elevator;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The movement strategies of an elevator.
+ */
+public enum PlannerType {
+    /**
+     * Queues the pickup and target floors when the request is assigned, and stops when the car reaches the nearest queued floor.
+     * The direction of an idle car is chosen by the larger queue.
+     */
+    DIRECTIONAL_QUEUE,
+
+    /**
+     * Collective control, the car sweeps in one direction while it has stops ahead, then reverses (LOOK).
+     */
+    COLLECTIVE;
+
+    @NotNull MovePlanner create(@NotNull Elevator elevator,
+                                int topFloor,
+                                @NotNull OutstandingWork outstandingWork,
+                                @NotNull ElevatorListener listener,
+                                boolean isMultiFloorStep) {
+        return switch (this) {
+            case DIRECTIONAL_QUEUE -> new DirectionalQueuePlanner(elevator, topFloor, outstandingWork, listener, isMultiFloorStep);
+            case COLLECTIVE -> new CollectivePlanner(elevator, topFloor, outstandingWork, listener, isMultiFloorStep);
+        };
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.controller;
+
+import org.example.model.MoveRequest;
+import org.example.model.PriorityClass;
+import org.example.model.Trip;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Multi-level queue of trips waiting for an elevator, one FIFO level per {@link PriorityClass}.
+ * <p>
+ * Emergency recall always goes first. A trip that is about to miss its latency target is promoted to the emergency level, behind
+ * declared emergencies but ahead of every aged trip. Every other trip is promoted one level for every aging step it has waited,
+ * up to the {@link PriorityClass#STANDARD} level, so freight catches up with passengers but aged trips never pass accessibility
+ * or emergency trips. Among trips on the same effective level the trip that was queued first goes first, then the higher
+ * declared class, so once freight has aged to the passenger level it is passed by no later passenger.
+ */
+class PriorityRequestQueue {
+    /**
+     * The highest level aging promotes a trip to.
+     */
+    private static final int AGING_LIMIT = PriorityClass.STANDARD.ordinal();
+
+    private final Map<PriorityClass, Queue<Trip>> levels = new EnumMap<>(PriorityClass.class);
+    private final long agingStepNanos;
+
+    /**
+     * @param agingStep how long a trip waits before it is promoted one level.
+     */
+    PriorityRequestQueue(@NotNull Duration agingStep) {
+        if (agingStep.isNegative() || agingStep.isZero()) {
+            throw new IllegalArgumentException("Aging step must be greater than 0");
+        }
+        this.agingStepNanos = agingStep.toNanos();
+        for (PriorityClass priority : PriorityClass.values()) {
+            levels.put(priority, new ArrayDeque<>());
+        }
+    }
+
+    synchronized void add(@NotNull Trip trip) {
+        levels.get(trip.getRequest().priority()).add(trip);
+    }
+
+    /**
+     * @param nowNanos the current {@link System#nanoTime()}.
+     * @return the trip to dispatch next, or null if no trip is waiting.
+     */
+    synchronized @Nullable Trip peek(long nowNanos) {
+        Trip emergency = levels.get(PriorityClass.EMERGENCY).peek();
+        if (emergency != null) {
+            return emergency;
+        }
+
+        Trip next = null;
+        int nextLevel = Integer.MAX_VALUE;
+        // Levels are visited from the highest declared class, so of two trips queued at the same time the first found wins.
+        for (Queue<Trip> level : levels.values()) {
+            for (Trip trip : level) {
+                int effectiveLevel = effectiveLevel(trip, nowNanos);
+                if (effectiveLevel < nextLevel
+                        || effectiveLevel == nextLevel && trip.getQueuedAtNanos() < next.getQueuedAtNanos()) {
+                    next = trip;
+                    nextLevel = effectiveLevel;
+                }
+            }
+        }
+        return next;
+    }
+
+    /**
+     * @param trip a trip returned by {@link #peek(long)}.
+     */
+    synchronized void remove(@NotNull Trip trip) {
+        levels.get(trip.getRequest().priority()).remove(trip);
+    }
+
+    synchronized boolean isEmpty() {
+        for (Queue<Trip> level : levels.values()) {
+            if (!level.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the trip's level after latency promotion and aging, aging stops at {@link #AGING_LIMIT}.
+     */
+    private int effectiveLevel(@NotNull Trip trip, long nowNanos) {
+        MoveRequest request = trip.getRequest();
+        long waitedNanos = nowNanos - trip.getQueuedAtNanos();
+        if (request.latencyTarget() != null && waitedNanos + agingStepNanos >= request.latencyTarget().toNanos()) {
+            return PriorityClass.EMERGENCY.ordinal();
+        }
+
+        int level = request.priority().ordinal();
+        if (level <= AGING_LIMIT) {
+            return level;
+        }
+        return (int) Math.max(AGING_LIMIT, level - waitedNanos / agingStepNanos);
+    }
+}
@@ -1,197 +1,357 @@
 package org.example.controller;
 
-import lombok.Value;
+import lombok.Builder;
+import org.example.ElevatorSummary;
+import org.example.PrioritySummary;
 import org.example.ScenarioConstraints;
+import org.example.ScenarioInput;
+import org.example.ScenarioResult;
+import org.example.export.TraceExporter;
+import org.example.export.TraceFormat;
+import org.example.model.Elevator;
+import org.example.model.FleetState;
 import org.example.model.MoveRequest;
+import org.example.model.PriorityClass;
+import org.example.model.TravelModel;
+import org.example.model.Trip;
+import org.example.service.CostTableStatistics;
+import org.example.service.CostWeightTuner;
+import org.example.service.CostWeights;
+import org.example.service.ElevatorControllerService;
+import org.example.service.TripStatistics;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
-import java.util.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Simulate the scenario.
+ * <p>
+ * A controller may be run any number of times. Each run builds its own elevators, and runs them on a worker pool that is
+ * shared across runs, so embedding applications do not pay for thread creation on every scenario.
  */
-@Value
-public class ScenarioController implements Runnable {
+public class ScenarioController {
     private static final Logger LOGGER = LoggerFactory.getLogger(ScenarioController.class);
     private static final int INTERVAL_COUNT = 5;
+    private static final AtomicInteger WORKER_COUNT = new AtomicInteger();
+    private static final long TUNER_SEED = 42;
+
+    /**
+     * Idle workers are kept for a minute before they are released, daemon threads do not block the JVM from exiting.
+     */
+    private static final ExecutorService WORKER_POOL = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "elevator-worker-" + WORKER_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
 
     public static final short INTERVAL_SLEEP_TIME_MS = 100;
 
-    ScenarioInput scenarioInput;
-    List<ElevatorController> elevatorControllers;
-    ElevatorRequestController elevatorRequestController;
-    AtomicBoolean isScenarioRunning;
+    /**
+     * Each time slice is an hour of simulated time, fed over {@link #INTERVAL_COUNT} interval sleeps.
+     */
+    public static final double WALL_NANOS_PER_SIMULATED_SECOND = INTERVAL_SLEEP_TIME_MS * INTERVAL_COUNT * 1_000_000.0 / 3_600;
 
-    public ScenarioController() {
-        this.scenarioInput = readInput();
-        this.isScenarioRunning = new AtomicBoolean(false);
-        // Adjusting the elevator count will show the effect on wait time during prime-time hours.
-        List<ElevatorController> elevatorControllers = new ArrayList<>(scenarioInput.constraints.elevatorCount());
-        for (int i = 0; i < scenarioInput.constraints.elevatorCount(); i++) {
-            ElevatorController elevatorController = new ElevatorController(i, scenarioInput.constraints.floorCount(), isScenarioRunning);
-            elevatorControllers.add(elevatorController);
+    /**
+     * @param simulatedSeconds a duration in simulated time.
+     * @return the wall clock duration of the simulated time.
+     */
+    public static @NotNull Duration toWallDuration(double simulatedSeconds) {
+        return Duration.ofNanos((long) (simulatedSeconds * WALL_NANOS_PER_SIMULATED_SECOND));
+    }
+
+    private final ScenarioConstraints constraints;
+    private final Iterable<List<MoveRequest>> timeSlices;
+    private final Executor executor;
+    private final boolean isAdaptiveWeights;
+    private final PlannerType plannerType;
+    private final @Nullable List<TravelModel> travelModels;
+    private final @Nullable Path traceDirectory;
+    private final TraceFormat traceFormat;
+
+    /**
+     * @param constraints the constraints of the scenario.
+     * @param timeSlices the requests of each time slice, in order.
+     * @param executor the executor to run the elevators on, defaults to the shared worker pool.
+     *                 The executor must be able to run every elevator, the request controller, and the request feed concurrently,
+     *                 the result is built on it as well.
+     * @param adaptiveWeights tune the cost weights after every time slice, starting from the constraints' weights.
+     * @param plannerType the strategy that orders each elevator's stops, defaults to {@link PlannerType#COLLECTIVE}.
+     * @param travelModels the kinematics of each elevator, indexed by elevator id. Defaults to moving one floor per tick.
+     * @param traceDirectory the directory to stream the steps, assignments, and trips of each run to, or null to skip the trace.
+     * @param traceFormat the file format of the trace, defaults to {@link TraceFormat#CSV}.
+     */
+    @Builder
+    private ScenarioController(@NotNull ScenarioConstraints constraints,
+                               @NotNull Iterable<List<MoveRequest>> timeSlices,
+                               @Nullable Executor executor,
+                               boolean adaptiveWeights,
+                               @Nullable PlannerType plannerType,
+                               @Nullable List<TravelModel> travelModels,
+                               @Nullable Path traceDirectory,
+                               @Nullable TraceFormat traceFormat) {
+        this.constraints = Objects.requireNonNull(constraints, "constraints");
+        this.timeSlices = Objects.requireNonNull(timeSlices, "timeSlices");
+        this.executor = executor == null ? WORKER_POOL : executor;
+        this.isAdaptiveWeights = adaptiveWeights;
+        this.plannerType = plannerType == null ? PlannerType.COLLECTIVE : plannerType;
+        if (travelModels != null && travelModels.size() != constraints.elevatorCount()) {
+            throw new IllegalArgumentException("Expected a travel model for each of the " + constraints.elevatorCount() + " elevators");
         }
+        this.travelModels = travelModels == null ? null : List.copyOf(travelModels);
+        this.traceDirectory = traceDirectory;
+        this.traceFormat = traceFormat == null ? TraceFormat.CSV : traceFormat;
+    }
 
-        this.elevatorControllers = elevatorControllers.stream().toList();
-        this.elevatorRequestController = new ElevatorRequestController(
-                this.elevatorControllers,
-                scenarioInput.constraints.costPerFloor(),
-                scenarioInput.constraints.costPerStop(),
-                isScenarioRunning);
+    /**
+     * @param scenarioInput the parsed scenario input file.
+     * @return a controller for the scenario.
+     */
+    public static @NotNull ScenarioController fromInput(@NotNull ScenarioInput scenarioInput) {
+        return builder()
+                .constraints(scenarioInput.constraints())
+                .timeSlices(scenarioInput.moveRequests().values())
+                .build();
     }
 
     /**
-     * Parse scenario input file and map the into {@link ScenarioInput}.
-     *<p>
-     * The scenario input file should be in the following format:
-     * # header
-     * # constraints
-     * # timeSlice, floor, destination
-     *<p>
-     * Each time slice represents an hour, and the current floor and destination of a request.
-     * No-op requests (current floor and destination are equal to 0) are randomly spread throughout each hour to simulate a real-world scenario.
-     *
-     * @return {@link ScenarioInput}.
+     * Start the scenario.
+     * @return a future that completes once every request has been fed and served, and the trace has been written.
+     * @throws UncheckedIOException if the trace files cannot be created.
      */
-    private @NotNull ScenarioInput readInput() {
-        // TreeMap is used to maintain the order of time slices.
-        Map<Integer, List<MoveRequest>> moveRequests = new TreeMap<>();
-        ScenarioConstraints constraints;
-        String inputRegex = "\\s*,\\s*";
-        try (FileReader fileReader = new FileReader(Path.of("src/main/resources/scenario.txt").toFile())) {
-            BufferedReader br = new BufferedReader(fileReader);
-
-            List<MoveRequest> requests;
-            int currentTimeSlice = -1;
-
-            br.readLine(); // Skip the header line.
-
-            String line = br.readLine();
-            if (line == null) {
-                throw new UnsupportedOperationException("No data found in the file.");
+    public @NotNull CompletableFuture<ScenarioResult> runAsync() {
+        LOGGER.debug("Scenario constraints: {}", constraints);
+        long startNanos = System.nanoTime();
+
+        AtomicBoolean isScenarioRunning = new AtomicBoolean(true);
+        OutstandingWork outstandingWork = new OutstandingWork();
+        FleetState fleetState = new FleetState(constraints.elevatorCount());
+        ElevatorControllerService elevatorControllerService = new ElevatorControllerService(
+                CostWeights.of(constraints.costPerFloor(), constraints.costPerStop()));
+        CostWeightTuner costWeightTuner = isAdaptiveWeights ? new CostWeightTuner(elevatorControllerService, TUNER_SEED) : null;
+        TripStatistics tripStatistics = new TripStatistics();
+        AtomicReference<Instant> firstDispatchedAt = new AtomicReference<>();
+        TraceExporter traceExporter = traceDirectory == null ? null : openTrace(traceDirectory);
+        ElevatorListener listener = new ElevatorListener() {
+            @Override
+            public void onStep(@NotNull Elevator elevator) {
+                if (traceExporter != null) {
+                    traceExporter.recordStep(elevator);
+                }
             }
-            String[] inputValues = line.trim().split(inputRegex);
-            Integer[] parsed = convertToIntArray(inputValues);
-            constraints = new ScenarioConstraints(parsed[0], parsed[1], parsed[2], parsed[3], parsed[4], parsed[5]);
-            line = br.readLine();
-            while (line != null) {
-                inputValues = line.trim().split(inputRegex);
-                if (inputValues.length != 3) {
-                    throw new UnsupportedOperationException("Invalid input format. Expected 3 parameters.");
+
+            @Override
+            public void onTripAssigned(@NotNull Elevator elevator, @NotNull Trip trip) {
+                if (firstDispatchedAt.get() == null) {
+                    firstDispatchedAt.compareAndSet(null, Instant.now());
+                }
+                if (costWeightTuner != null) {
+                    costWeightTuner.recordAssignment(trip);
                 }
-                int timeSlice = Integer.parseInt(inputValues[0]);
-                int floor = Integer.parseInt(inputValues[1]);
-                int destination = Integer.parseInt(inputValues[2]);
-                if (currentTimeSlice != timeSlice) {
-                    currentTimeSlice = timeSlice;
+                if (traceExporter != null) {
+                    traceExporter.recordAssignment(elevator, trip);
                 }
+            }
 
-                // No-op requests are not filtered out during parsing, so that the intervals will have a random distribution.
-                requests = moveRequests.computeIfAbsent(currentTimeSlice, _ -> new ArrayList<>());
-                requests.add(new MoveRequest(floor, destination));
-                line = br.readLine();
+            @Override
+            public void onTripCompleted(@NotNull Elevator elevator, @NotNull Trip trip) {
+                tripStatistics.record(trip);
+                if (costWeightTuner != null) {
+                    costWeightTuner.record(trip);
+                }
+                if (traceExporter != null) {
+                    traceExporter.recordTrip(elevator, trip);
+                }
             }
-        } catch (Exception e) {
-            throw new RuntimeException("Error reading scenario file", e);
+        };
+
+        // Adjusting the elevator count will show the effect on wait time during prime-time hours.
+        List<ElevatorController> elevatorControllers = new ArrayList<>(constraints.elevatorCount());
+        for (int i = 0; i < constraints.elevatorCount(); i++) {
+            ElevatorController elevatorController = new ElevatorController(
+                    i,
+                    constraints.floorCount(),
+                    fleetState,
+                    outstandingWork,
+                    listener,
+                    plannerType,
+                    travelModels == null ? null : travelModels.get(i),
+                    isScenarioRunning);
+            elevatorControllers.add(elevatorController);
         }
 
-        return new ScenarioInput(constraints, moveRequests);
-    }
+        // With kinematic cars the dispatcher polls once per simulated control cycle, so waits stay in simulated time,
+        // unless the cycle is shorter than the dispatcher's minimum poll interval.
+        Duration pollInterval = travelModels == null ?
+                ElevatorRequestController.DEFAULT_POLL_INTERVAL :
+                toWallDuration(travelModels.stream().mapToDouble(TravelModel::controlCycleSeconds).min().orElseThrow());
+        ElevatorRequestController elevatorRequestController = new ElevatorRequestController(
+                elevatorControllers.stream().toList(),
+                fleetState,
+                elevatorControllerService,
+                outstandingWork,
+                pollInterval,
+                isScenarioRunning);
 
-    /**
-     * Converts an array of strings to an array of integers.
-     * @param inputValues the input string array.
-     * @return the converted integer array.
-     */
-    private @NotNull Integer[] convertToIntArray(@NotNull String[] inputValues) {
-        Integer[] parsed = new Integer[inputValues.length];
-        for (int i = 0; i < inputValues.length; i++) {
-            try {
-                parsed[i] = Integer.parseInt(inputValues[i].trim());
-            } catch (NumberFormatException e) {
-                throw new IllegalArgumentException("Invalid number format in input values", e);
-            }
+        executor.execute(elevatorRequestController);
+        for (ElevatorController elevatorController : elevatorControllers) {
+            executor.execute(elevatorController);
         }
-        return parsed;
+
+        CompletableFuture<Integer> requestCount = CompletableFuture.supplyAsync(
+                () -> execute(elevatorRequestController, costWeightTuner, outstandingWork), executor);
+        return requestCount
+                // The last unit of work is completed by an elevator holding its lock, build the result off that thread.
+                .thenCombineAsync(outstandingWork.onDone(), (count, _) -> {
+                    Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+                    // The workers finish their loops and return to the pool once the scenario stops running.
+                    isScenarioRunning.set(false);
+                    long traceDroppedCount = traceExporter == null ? 0 : closeTrace(traceExporter);
+                    return new ScenarioResult(
+                            constraints,
+                            count,
+                            elapsed,
+                            tripStatistics.getMeanWaitMs(),
+                            tripStatistics.getMeanRideMs(),
+                            costWeightTuner == null ? elevatorControllerService.getWeights() : costWeightTuner.getIncumbent(),
+                            summarize(elevatorControllers),
+                            summarize(tripStatistics),
+                            summarize(elevatorControllerService),
+                            firstDispatchedAt.get(),
+                            traceDroppedCount);
+                }, executor)
+                .whenCompleteAsync((_, failure) -> {
+                    if (failure != null) {
+                        isScenarioRunning.set(false);
+                        if (traceExporter != null) {
+                            closeTrace(traceExporter);
+                        }
+                    }
+                }, executor);
     }
 
-    private record ScenarioInput(@NotNull ScenarioConstraints constraints,
-                                 @NotNull Map<Integer, List<MoveRequest>> moveRequests) {
+    private @NotNull TraceExporter openTrace(@NotNull Path directory) {
+        try {
+            return new TraceExporter(directory, traceFormat);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open the trace in " + directory, e);
+        }
     }
 
     /**
-     * Execute the scenario.
+     * @return the number of events missing from the trace.
      */
-    public void execute() {
-        LOGGER.debug("Scenario constraints: {}", scenarioInput.constraints);
+    private static long closeTrace(@NotNull TraceExporter traceExporter) {
+        long droppedCount;
+        try {
+            droppedCount = traceExporter.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write the trace in " + traceExporter.getDirectory(), e);
+        }
+        LOGGER.info("Trace written to {}", traceExporter.getDirectory());
+        return droppedCount;
+    }
 
-        isScenarioRunning.set(true);
-        elevatorRequestController.start();
+    private @NotNull List<ElevatorSummary> summarize(@NotNull List<ElevatorController> elevatorControllers) {
+        List<ElevatorSummary> summaries = new ArrayList<>(elevatorControllers.size());
         for (ElevatorController elevatorController : elevatorControllers) {
-            elevatorController.start();
+            ElevatorSummary summary = elevatorController.summarize();
+            LOGGER.info("Elevator id {}: travelled {} floors in {} steps with {} reversals ({})",
+                    summary.elevatorId(), summary.floorsTravelled(), summary.travelSteps(), summary.reversals(), plannerType);
+            summaries.add(summary);
         }
+        return summaries;
+    }
 
-        for (List<MoveRequest> value : scenarioInput.moveRequests().values()) {
-            int size = value.size();
-            int interval = (int) Math.ceil((double) size / INTERVAL_COUNT);
-
-            // Each hour is split into intervals to simulate ebs and flows of requests.
-            for (int i = 0; i < INTERVAL_COUNT; i++) {
-                int start = i * interval;
-                int end = Math.min(start + interval, size);
-
-                if (start >= size) {
-                    break;
-                }
-
-                List<MoveRequest> requestsInTimeSlice = value.subList(i, end);
-                elevatorRequestController.queueRequests(requestsInTimeSlice);
-
-                try {
-                    // Each interval sleep represents an hour, the interval sleep time is a subset of the hour.
-                    // The sleeps could be adjusted to be more realistic, but this is a simulation for demonstration purposes.
-                    Thread.sleep(INTERVAL_SLEEP_TIME_MS);
-                } catch (InterruptedException e) {
-                    LOGGER.error("ScenarioController interrupted", e);
-                    Thread.currentThread().interrupt();
-                }
+    private static @NotNull List<PrioritySummary> summarize(@NotNull TripStatistics tripStatistics) {
+        List<PrioritySummary> summaries = new ArrayList<>();
+        for (PriorityClass priority : PriorityClass.values()) {
+            long tripCount = tripStatistics.getCount(priority);
+            if (tripCount == 0) {
+                continue;
             }
+            PrioritySummary summary = new PrioritySummary(
+                    priority,
+                    tripCount,
+                    tripStatistics.getWaitPercentileMs(priority, 50),
+                    tripStatistics.getWaitPercentileMs(priority, 99),
+                    tripStatistics.getWaitPercentileMs(priority, 100),
+                    tripStatistics.getLatencyTargetMisses(priority));
+            LOGGER.info("Priority {}: {} trips waited p50 {} ms, p99 {} ms, max {} ms, {} missed their latency target",
+                    priority, tripCount, String.format("%.1f", summary.p50WaitMs()), String.format("%.1f", summary.p99WaitMs()),
+                    String.format("%.1f", summary.maxWaitMs()), summary.latencyTargetMisses());
+            summaries.add(summary);
         }
+        return summaries;
+    }
+
+    private static @NotNull CostTableStatistics summarize(@NotNull ElevatorControllerService elevatorControllerService) {
+        CostTableStatistics statistics = elevatorControllerService.getCostTableStatistics();
+        LOGGER.info("Cost table: {} hits, {} refreshes re-evaluating {} cars, {} misses",
+                statistics.hits(), statistics.refreshes(), statistics.invalidations(), statistics.misses());
+        return statistics;
     }
 
     /**
-     * Shutdown the controller, joins all threads.
+     * Feed the time slices to the request controller.
+     * @return the number of requests that were queued.
      */
-    public void shutdown() {
-        isScenarioRunning.set(false);
+    private int execute(@NotNull ElevatorRequestController elevatorRequestController,
+                        @Nullable CostWeightTuner costWeightTuner,
+                        @NotNull OutstandingWork outstandingWork) {
+        int requestCount = 0;
+        int timeSlice = 0;
         try {
-            elevatorRequestController.join();
-            for (ElevatorController elevatorController : elevatorControllers) {
-                elevatorController.join();
-            }
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
-    }
+            for (List<MoveRequest> value : timeSlices) {
+                int size = value.size();
+                int interval = (int) Math.ceil((double) size / INTERVAL_COUNT);
+
+                // Each hour is split into intervals to simulate ebs and flows of requests.
+                for (int i = 0; i < INTERVAL_COUNT; i++) {
+                    int start = i * interval;
+                    int end = Math.min(start + interval, size);
+
+                    if (start >= size) {
+                        break;
+                    }
+
+                    List<MoveRequest> requestsInTimeSlice = value.subList(start, end);
+                    requestCount += elevatorRequestController.queueRequests(requestsInTimeSlice);
 
-    @Override
-    public void run() {
-        execute();
-        while (!elevatorRequestController.isDone()) {
-            try {
-                //noinspection BusyWait
-                Thread.sleep(INTERVAL_SLEEP_TIME_MS * 2);
-            } catch (InterruptedException e) {
-                LOGGER.error("ScenarioController interrupted", e);
-                Thread.currentThread().interrupt();
+                    try {
+                        // Each interval sleep represents an hour, the interval sleep time is a subset of the hour.
+                        // The sleeps could be adjusted to be more realistic, but this is a simulation for demonstration purposes.
+                        Thread.sleep(INTERVAL_SLEEP_TIME_MS);
+                    } catch (InterruptedException e) {
+                        LOGGER.error("ScenarioController interrupted", e);
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                if (costWeightTuner != null) {
+                    costWeightTuner.onTimeSliceFinished(timeSlice);
+                }
+                timeSlice++;
             }
+        } finally {
+            outstandingWork.finishInput();
         }
-        shutdown();
+        return requestCount;
     }
 }
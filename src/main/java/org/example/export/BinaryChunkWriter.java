@@ -0,0 +1,87 @@
+package org.example.export;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a table in a compact, chunked, columnar binary format.
+ * <p>
+ * The file starts with a header, {@link #MAGIC}, {@link #VERSION}, the column count, and the column names.
+ * Each chunk is the row count, the compressed length, and the deflated columns. A column is written as the zigzag varint
+ * encoded deltas between consecutive values, so slowly changing columns like time and floor take one or two bytes per row.
+ * Read the file with {@link BinaryTraceReader}.
+ */
+class BinaryChunkWriter implements ChunkWriter {
+    static final int MAGIC = 0x454C5654; // "ELVT"
+    static final int VERSION = 1;
+
+    private final DataOutputStream output;
+    private final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private byte[] compressed = new byte[0];
+
+    BinaryChunkWriter(@NotNull Path path, @NotNull TraceTable table) throws IOException {
+        this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+        output.writeInt(MAGIC);
+        output.writeByte(VERSION);
+        output.writeByte(table.getColumns().size());
+        for (String column : table.getColumns()) {
+            output.writeUTF(column);
+        }
+    }
+
+    @Override
+    public void write(long[][] columns, int rows) throws IOException {
+        encoded.reset();
+        for (long[] column : columns) {
+            long previous = 0;
+            for (int row = 0; row < rows; row++) {
+                writeVarLong(column[row] - previous);
+                previous = column[row];
+            }
+        }
+
+        byte[] input = encoded.toByteArray();
+        if (compressed.length < input.length + 64) {
+            compressed = new byte[input.length + 64];
+        }
+        deflater.reset();
+        deflater.setInput(input);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                byte[] grown = new byte[compressed.length * 2];
+                System.arraycopy(compressed, 0, grown, 0, length);
+                compressed = grown;
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+
+        output.writeInt(rows);
+        output.writeInt(length);
+        output.write(compressed, 0, length);
+    }
+
+    private void writeVarLong(long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            encoded.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        encoded.write((int) zigzag);
+    }
+
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+        output.close();
+    }
+}
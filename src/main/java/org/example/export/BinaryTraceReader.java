@@ -0,0 +1,111 @@
+package org.example.export;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a table written by {@link BinaryChunkWriter} one chunk at a time, so memory is bounded by the chunk size.
+ */
+public class BinaryTraceReader implements Closeable {
+    private final DataInputStream input;
+    private final Inflater inflater = new Inflater();
+
+    @Getter
+    private final List<String> columns;
+
+    private byte[] decoded = new byte[0];
+    private int position;
+
+    public BinaryTraceReader(@NotNull Path path) throws IOException {
+        this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+        if (input.readInt() != BinaryChunkWriter.MAGIC) {
+            throw new IOException("Not a binary trace file: " + path);
+        }
+        int version = input.readUnsignedByte();
+        if (version != BinaryChunkWriter.VERSION) {
+            throw new IOException("Unsupported binary trace version " + version);
+        }
+        int columnCount = input.readUnsignedByte();
+        List<String> columns = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            columns.add(input.readUTF());
+        }
+        this.columns = List.copyOf(columns);
+    }
+
+    /**
+     * @return the next chunk's values indexed by column then row, or null at the end of the file.
+     */
+    public long[] @Nullable [] readChunk() throws IOException {
+        int rows;
+        try {
+            rows = input.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        byte[] compressed = new byte[input.readInt()];
+        input.readFully(compressed);
+
+        inflater.reset();
+        inflater.setInput(compressed);
+        // Every value takes at most 10 bytes as a varint.
+        int capacity = rows * columns.size() * 10;
+        if (decoded.length < capacity) {
+            decoded = new byte[capacity];
+        }
+        try {
+            int length = 0;
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(decoded, length, decoded.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated binary trace chunk");
+                }
+                length += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt binary trace chunk", e);
+        }
+
+        position = 0;
+        long[][] chunk = new long[columns.size()][rows];
+        for (long[] column : chunk) {
+            long previous = 0;
+            for (int row = 0; row < rows; row++) {
+                previous += readVarLong();
+                column[row] = previous;
+            }
+        }
+        return chunk;
+    }
+
+    private long readVarLong() {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = decoded[position++];
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        input.close();
+    }
+}
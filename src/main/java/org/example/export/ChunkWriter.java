@@ -0,0 +1,16 @@
+package org.example.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes the chunks of one {@link TraceTable} to a file.
+ */
+interface ChunkWriter extends Closeable {
+
+    /**
+     * @param columns the chunk's values, indexed by column then row.
+     * @param rows the number of rows in the chunk, the column arrays may be longer.
+     */
+    void write(long[][] columns, int rows) throws IOException;
+}
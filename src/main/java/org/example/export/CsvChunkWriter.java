@@ -0,0 +1,42 @@
+package org.example.export;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a table as gzip compressed CSV, the chunk's columns are transposed back into rows.
+ */
+class CsvChunkWriter implements ChunkWriter {
+    private final BufferedWriter writer;
+
+    CsvChunkWriter(@NotNull Path path, @NotNull TraceTable table) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(path)), StandardCharsets.US_ASCII));
+        writer.write(String.join(",", table.getColumns()));
+        writer.newLine();
+    }
+
+    @Override
+    public void write(long[][] columns, int rows) throws IOException {
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns.length; column++) {
+                if (column > 0) {
+                    writer.write(',');
+                }
+                writer.write(Long.toString(columns[column][row]));
+            }
+            writer.newLine();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
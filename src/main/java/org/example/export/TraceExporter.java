@@ -0,0 +1,273 @@
+package org.example.export;
+
+import lombok.Getter;
+import org.example.model.Elevator;
+import org.example.model.FleetState;
+import org.example.model.Trip;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Streams the simulation's events to disk while the scenario runs.
+ * <p>
+ * Events are handed to a bounded queue and written by a background thread, which collects {@link #CHUNK_ROWS} rows per table
+ * before writing them as a chunk. Memory stays bounded by the queue capacity and one chunk per table, however long the run.
+ * Recording never blocks, when the disk falls behind and the queue is full the event is dropped and counted instead of
+ * stalling the elevator that reported it. The count is returned by {@link #finish()}, so a truncated trace is never
+ * mistaken for a complete one.
+ */
+public class TraceExporter implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TraceExporter.class);
+    private static final int QUEUE_CAPACITY = 65_536;
+    private static final long POLL_TIMEOUT_MS = 10;
+
+    static final int CHUNK_ROWS = 8_192;
+
+    private final BlockingQueue<Row> queue;
+    private final Map<TraceTable, Chunk> chunks = new EnumMap<>(TraceTable.class);
+    private final LongAdder droppedCount = new LongAdder();
+    private final long startNanos = System.nanoTime();
+    private final Thread writerThread;
+    // Recorders share the read lock, close takes the write lock, so no event is queued after the writer was told to finish.
+    private final ReadWriteLock admissionLock = new ReentrantReadWriteLock();
+
+    private volatile boolean isClosed;
+    private @Nullable IOException failure;
+
+    @Getter
+    private final Path directory;
+
+    /**
+     * Creates the directory if needed, opens a file per table, and starts the writer thread.
+     * @param directory the directory to write the trace to, existing files are replaced.
+     * @param format the file format of the tables.
+     */
+    public TraceExporter(@NotNull Path directory, @NotNull TraceFormat format) throws IOException {
+        this(directory, format, QUEUE_CAPACITY);
+    }
+
+    TraceExporter(@NotNull Path directory, @NotNull TraceFormat format, int queueCapacity) throws IOException {
+        this.directory = directory;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        Files.createDirectories(directory);
+        try {
+            for (TraceTable table : TraceTable.values()) {
+                chunks.put(table, new Chunk(table, format.open(directory, table)));
+            }
+        } catch (IOException e) {
+            closeWriters();
+            throw e;
+        }
+
+        this.writerThread = new Thread(this::drain, "trace-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Record the elevator's position and direction after a step that changed either.
+     * The steps table only has a row per change, an elevator is at the floor and direction of its last row until its next one.
+     * @param elevator the elevator that moved.
+     */
+    public void recordStep(@NotNull Elevator elevator) {
+        record(TraceTable.STEPS, elapsedNanos(),
+                elevator.getElevatorId(),
+                elevator.getCurrentFloor(),
+                FleetState.toCode(elevator.getDirection()));
+    }
+
+    /**
+     * Record a trip assigned to an elevator.
+     * @param elevator the assigned elevator.
+     * @param trip the assigned trip.
+     */
+    public void recordAssignment(@NotNull Elevator elevator, @NotNull Trip trip) {
+        record(TraceTable.ASSIGNMENTS, elapsedNanos(),
+                elevator.getElevatorId(),
+                trip.getRequest().currentFloor(),
+                trip.getRequest().targetFloor());
+    }
+
+    /**
+     * Record a completed trip.
+     * @param elevator the elevator that delivered the passenger.
+     * @param trip the completed trip.
+     */
+    public void recordTrip(@NotNull Elevator elevator, @NotNull Trip trip) {
+        record(TraceTable.TRIPS, trip.getCompletedAtNanos() - startNanos,
+                elevator.getElevatorId(),
+                trip.getRequest().currentFloor(),
+                trip.getRequest().targetFloor(),
+                trip.getWaitNanos(),
+                trip.getRideNanos());
+    }
+
+    /**
+     * @return the number of events dropped because the writer fell behind.
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Writes the queued events and the partial chunks, and closes the files.
+     * Events recorded after the exporter is closed are ignored.
+     * @throws IOException if any write failed, the trace is incomplete.
+     */
+    @Override
+    public void close() throws IOException {
+        finish();
+    }
+
+    /**
+     * Closes the exporter, see {@link #close()}.
+     * @return the number of events dropped because the writer fell behind, the trace is missing these rows.
+     * @throws IOException if any write failed, the trace is incomplete.
+     */
+    public long finish() throws IOException {
+        admissionLock.writeLock().lock();
+        try {
+            if (isClosed) {
+                return getDroppedCount();
+            }
+            isClosed = true;
+        } finally {
+            admissionLock.writeLock().unlock();
+        }
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing the trace in " + directory, e);
+        }
+
+        long dropped = getDroppedCount();
+        if (dropped > 0) {
+            LOGGER.warn("Trace in {}: dropped {} events, the writer could not keep up", directory, dropped);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return dropped;
+    }
+
+    private long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    private void record(@NotNull TraceTable table, long... values) {
+        admissionLock.readLock().lock();
+        try {
+            if (isClosed) {
+                return;
+            }
+            if (!queue.offer(new Row(table, values))) {
+                droppedCount.increment();
+            }
+        } finally {
+            admissionLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The writer loop, runs until the exporter is closed and the queue is empty.
+     */
+    private void drain() {
+        try {
+            while (!isClosed || !queue.isEmpty()) {
+                Row row = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (row != null && failure == null) {
+                    write(row);
+                }
+            }
+            if (failure == null) {
+                for (Chunk chunk : chunks.values()) {
+                    chunk.flush();
+                }
+            }
+        } catch (IOException e) {
+            fail(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(new IOException("Trace writer interrupted", e));
+        } finally {
+            closeWriters();
+        }
+    }
+
+    private void write(@NotNull Row row) {
+        try {
+            chunks.get(row.table()).add(row.values());
+        } catch (IOException e) {
+            // Keep draining so recording never blocks, the failure is reported on close.
+            fail(e);
+        }
+    }
+
+    private void fail(@NotNull IOException e) {
+        LOGGER.error("Trace in {}: write failed, the remaining events are discarded", directory, e);
+        if (failure == null) {
+            failure = e;
+        } else {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private void closeWriters() {
+        for (Chunk chunk : chunks.values()) {
+            try {
+                chunk.writer.close();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    private record Row(@NotNull TraceTable table, long @NotNull [] values) {
+    }
+
+    /**
+     * The columns of the rows collected for a table since its last chunk was written.
+     */
+    private static final class Chunk {
+        private final ChunkWriter writer;
+        private final long[][] columns;
+        private int rows;
+
+        private Chunk(@NotNull TraceTable table, @NotNull ChunkWriter writer) {
+            this.writer = writer;
+            this.columns = new long[table.getColumns().size()][CHUNK_ROWS];
+        }
+
+        private void add(long @NotNull [] values) throws IOException {
+            for (int column = 0; column < columns.length; column++) {
+                columns[column][rows] = values[column];
+            }
+            if (++rows == CHUNK_ROWS) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            if (rows > 0) {
+                writer.write(columns, rows);
+                rows = 0;
+            }
+        }
+    }
+}
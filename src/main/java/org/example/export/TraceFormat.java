@@ -0,0 +1,44 @@
+package org.example.export;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * The file formats of a trace, each table is written to its own file.
+ */
+public enum TraceFormat {
+    /**
+     * Gzip compressed CSV with a header row, readable by most analysis tools.
+     */
+    CSV(".csv.gz"),
+
+    /**
+     * Chunked columnar binary, see {@link BinaryChunkWriter}.
+     */
+    BINARY(".bin");
+
+    private final String extension;
+
+    TraceFormat(@NotNull String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * @param directory the directory of the trace.
+     * @param table the table to resolve.
+     * @return the path of the table's file.
+     */
+    public @NotNull Path resolve(@NotNull Path directory, @NotNull TraceTable table) {
+        return directory.resolve(table.getFileName() + extension);
+    }
+
+    @NotNull ChunkWriter open(@NotNull Path directory, @NotNull TraceTable table) throws IOException {
+        Path path = resolve(directory, table);
+        return switch (this) {
+            case CSV -> new CsvChunkWriter(path, table);
+            case BINARY -> new BinaryChunkWriter(path, table);
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.export;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * The tables of a trace, every column holds longs.
+ * Times are nanoseconds since the start of the trace, directions are {@link org.example.model.FleetState} direction codes.
+ */
+@Getter
+public enum TraceTable {
+    /**
+     * The position and direction of an elevator after each step that changed either.
+     */
+    STEPS("steps", List.of("time_ns", "elevator_id", "floor", "direction")),
+
+    /**
+     * A trip assigned to an elevator by the dispatcher.
+     */
+    ASSIGNMENTS("assignments", List.of("time_ns", "elevator_id", "pickup_floor", "target_floor")),
+
+    /**
+     * A trip completed at its target floor.
+     */
+    TRIPS("trips", List.of("time_ns", "elevator_id", "pickup_floor", "target_floor", "wait_ns", "ride_ns"));
+
+    private final String fileName;
+    private final List<String> columns;
+
+    TraceTable(@NotNull String fileName, @NotNull List<String> columns) {
+        this.fileName = fileName;
+        this.columns = columns;
+    }
+}
@@ -24,6 +24,10 @@ public class Elevator {
     private int currentFloor;
     private Direction direction;
 
+    private int floorsTravelled;
+    private int travelSteps;
+    private int reversals;
+
     public Elevator(int elevatorId) {
         this.elevatorId = elevatorId;
         this.currentFloor = 1;
@@ -0,0 +1,163 @@
+package org.example.model;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Flat, structure-of-arrays view of the fleet's dispatch state.
+ * <p>
+ * Each elevator owns the slot that matches its id. The arrays are written by the elevator after every queue change or move,
+ * so the dispatcher can evaluate every car in a single pass without walking Elevator objects and TreeSets.
+ * <p>
+ * The fleet version counts the changes to the published state, and a change log records the slot of each of the most recent
+ * changes, so the dispatcher can tell which cars moved or changed their queues since it last looked without scanning the fleet.
+ * A writer logs the change after it wrote the state, and a reader reads the log before it reads the state, so the reader sees
+ * at least the state of the change it read. A slot that is rewritten while it is read may be seen half updated, but then the
+ * rewrite is logged as a later change and the next reader of the log reads the slot again.
+ * <p>
+ * The state is only written through {@link #update(Elevator)}, so every change is logged.
+ */
+public class FleetState {
+    public static final int DIRECTION_NONE = 0;
+    public static final int DIRECTION_UP = 1;
+    public static final int DIRECTION_DOWN = 2;
+
+    /**
+     * A change log entry holds the fleet version of the change above the slot bits, so a reader can tell a stale entry.
+     */
+    private static final int SLOT_BITS = 20;
+    private static final int MIN_CHANGE_LOG_CAPACITY = 16;
+
+    @Getter
+    private final int size;
+    private final int[] currentFloors;
+    private final int[] directions;
+    private final int[] upStops;
+    private final int[] downStops;
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Ring of the most recent changes, indexed by fleet version, room for at least two changes per car.
+     */
+    private final AtomicLongArray changes;
+
+    public FleetState(int size) {
+        if (size <= 0 || size > 1 << SLOT_BITS) {
+            throw new IllegalArgumentException("Fleet size must be between 1 and " + (1 << SLOT_BITS));
+        }
+        this.size = size;
+        this.currentFloors = new int[size];
+        this.directions = new int[size];
+        this.upStops = new int[size];
+        this.downStops = new int[size];
+        this.changes = new AtomicLongArray(Math.max(MIN_CHANGE_LOG_CAPACITY, Integer.highestOneBit(2 * size - 1) << 1));
+    }
+
+    /**
+     * Copies the elevator's state into its slot, and logs a change if the state changed.
+     * Each slot is written by its own elevator only, while the elevator's controller holds its lock.
+     * @param elevator the elevator to publish.
+     */
+    public void update(@NotNull Elevator elevator) {
+        int slot = elevator.getElevatorId();
+        int currentFloor = elevator.getCurrentFloor();
+        int direction = toCode(elevator.getDirection());
+        int upStopCount = elevator.getUpQueue().size();
+        int downStopCount = elevator.getDownQueue().size();
+        if (currentFloors[slot] == currentFloor && directions[slot] == direction &&
+                upStops[slot] == upStopCount && downStops[slot] == downStopCount) {
+            return;
+        }
+
+        currentFloors[slot] = currentFloor;
+        directions[slot] = direction;
+        upStops[slot] = upStopCount;
+        downStops[slot] = downStopCount;
+        // The change is logged last, a reader that sees the entry also sees the state written before it.
+        long changeVersion = version.incrementAndGet();
+        changes.setRelease(changeIndex(changeVersion), changeVersion << SLOT_BITS | slot);
+    }
+
+    /**
+     * @return the version of the fleet, the number of changes to the published state so far.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Reads the slots of the changes after one fleet version up to another, read it before the slots' state.
+     * A slot changed several times is listed once per change.
+     * @param fromVersion the version the caller last looked at, its own change is not listed.
+     * @param toVersion a version no later than {@link #getVersion()}.
+     * @param slots the array to write the slots to.
+     * @return the number of slots written, or -1 if the changes do not fit the array, were overwritten by later changes, or are
+     *         still being logged. The caller has to read every slot then.
+     */
+    public int getChangedSlots(long fromVersion, long toVersion, int @NotNull [] slots) {
+        long count = toVersion - fromVersion;
+        if (count > slots.length || count > changes.length()) {
+            return -1;
+        }
+
+        for (int i = 0; i < count; i++) {
+            long changeVersion = fromVersion + 1 + i;
+            long change = changes.getAcquire(changeIndex(changeVersion));
+            if (change >>> SLOT_BITS != changeVersion) {
+                return -1;
+            }
+            slots[i] = (int) (change & (1 << SLOT_BITS) - 1);
+        }
+        return (int) count;
+    }
+
+    public int getCurrentFloor(int slot) {
+        return currentFloors[slot];
+    }
+
+    /**
+     * @return the direction code of the elevator in the slot, see {@link #toCode(Direction)}.
+     */
+    public int getDirection(int slot) {
+        return directions[slot];
+    }
+
+    public int getUpStops(int slot) {
+        return upStops[slot];
+    }
+
+    public int getDownStops(int slot) {
+        return downStops[slot];
+    }
+
+    /**
+     * Copies the state of every slot into the arrays, each must hold at least {@link #getSize()} elements.
+     */
+    public void copyTo(int @NotNull [] currentFloors, int @NotNull [] directions, int @NotNull [] upStops, int @NotNull [] downStops) {
+        // Read the fleet version first, the copy sees at least the state of every slot as of that version.
+        version.get();
+        System.arraycopy(this.currentFloors, 0, currentFloors, 0, size);
+        System.arraycopy(this.directions, 0, directions, 0, size);
+        System.arraycopy(this.upStops, 0, upStops, 0, size);
+        System.arraycopy(this.downStops, 0, downStops, 0, size);
+    }
+
+    /**
+     * @param direction the direction to encode.
+     * @return the int code used in {@link #getDirection(int)}.
+     */
+    public static int toCode(@NotNull Direction direction) {
+        return switch (direction) {
+            case UP -> DIRECTION_UP;
+            case DOWN -> DIRECTION_DOWN;
+            case NONE -> DIRECTION_NONE;
+        };
+    }
+
+    private int changeIndex(long changeVersion) {
+        return (int) changeVersion & changes.length() - 1;
+    }
+}
@@ -1,9 +1,15 @@
 package org.example.model;
 
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Objects;
+
 /**
  * Represents a request to pick up a passenger from the current floor, and a request to move to a target floor.
  */
-public record MoveRequest(int currentFloor, int targetFloor) {
+public record MoveRequest(int currentFloor, int targetFloor, @NotNull PriorityClass priority, @Nullable Duration latencyTarget) {
 
     /**
      * Floor values should be non-negative.
@@ -11,11 +17,24 @@ public record MoveRequest(int currentFloor, int targetFloor) {
      *
      * @param currentFloor the current floor of the request.
      * @param targetFloor  the target floor after a pickup.
+     * @param priority the service class of the request.
+     * @param latencyTarget the longest the passenger should wait to be picked up, or null if there is no target.
      */
     public MoveRequest {
         if (currentFloor < 0 || targetFloor < 0) {
             throw new IllegalArgumentException("Floors must be non-negative");
         }
+        Objects.requireNonNull(priority, "priority");
+        if (latencyTarget != null && (latencyTarget.isNegative() || latencyTarget.isZero())) {
+            throw new IllegalArgumentException("Latency target must be greater than 0");
+        }
+    }
+
+    /**
+     * A {@link PriorityClass#STANDARD} request without a latency target.
+     */
+    public MoveRequest(int currentFloor, int targetFloor) {
+        this(currentFloor, targetFloor, PriorityClass.STANDARD, null);
     }
 
     /**
@@ -33,6 +52,8 @@ public record MoveRequest(int currentFloor, int targetFloor) {
 
     @Override
     public String toString() {
-        return "MoveRequest { currentFloor=" + currentFloor + " targetFloor=" + targetFloor + " }";
+        return "MoveRequest { currentFloor=" + currentFloor + " targetFloor=" + targetFloor +
+                (priority == PriorityClass.STANDARD ? "" : " priority=" + priority) +
+                (latencyTarget == null ? "" : " latencyTargetMs=" + latencyTarget.toMillis()) + " }";
     }
 }
@@ -0,0 +1,46 @@
+package org.example.model;
+
+import lombok.Getter;
+
+/**
+ * The service class of a move request, declared from the highest priority to the lowest.
+ * <p>
+ * The dispatcher serves waiting requests of a higher class first. A higher class also weighs each stop an elevator has already
+ * queued more heavily, so it is assigned to the car that reaches it soonest rather than the car that is merely closest.
+ */
+@Getter
+public enum PriorityClass {
+    /**
+     * Emergency recall, preempts every other request.
+     */
+    EMERGENCY(8, 1),
+
+    /**
+     * Passengers who cannot take the stairs or wait long, such as wheelchair users.
+     */
+    ACCESSIBILITY(3, 1),
+
+    STANDARD(1, 1),
+
+    /**
+     * Freight service, yields to passengers. Queued stops weigh half as much as for passengers, so freight takes the nearest
+     * car even when it is busy and leaves the idle cars to passengers.
+     */
+    FREIGHT(1, 2);
+
+    /**
+     * The multiplier of the cost per queued stop, see {@link org.example.service.CostWeights#forPriority(PriorityClass)}.
+     */
+    private final int queuedStopWeight;
+
+    /**
+     * The multiplier of the cost per floor and per stop, a class that weighs travel more than queued stops cares less about
+     * the delay of the stops.
+     */
+    private final int travelWeight;
+
+    PriorityClass(int queuedStopWeight, int travelWeight) {
+        this.queuedStopWeight = queuedStopWeight;
+        this.travelWeight = travelWeight;
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.model;
+
+/**
+ * TravelModel is a record that defines the kinematics of an elevator car.
+ * The car accelerates at a constant rate up to its rated speed, and decelerates at the same rate into the next stop.
+ * @param acceleration the acceleration and deceleration of the car in m/s²
+ * @param ratedSpeed the top speed of the car in m/s
+ * @param floorHeight the distance between two floors in m
+ * @param doorDwellSeconds the time the doors stay open at a stop in seconds
+ * @param controlCycleSeconds the time between two checks of the dispatcher for waiting requests in seconds
+ */
+public record TravelModel(double acceleration,
+                          double ratedSpeed,
+                          double floorHeight,
+                          double doorDwellSeconds,
+                          double controlCycleSeconds) {
+
+    /**
+     * A typical traction elevator in a mid-rise building.
+     */
+    public static final TravelModel MID_RISE = new TravelModel(1.0, 2.5, 3.5, 4.0, 1.0);
+
+    public TravelModel {
+        if (acceleration <= 0 || ratedSpeed <= 0 || floorHeight <= 0) {
+            throw new IllegalArgumentException("Acceleration, rated speed and floor height must be greater than 0");
+        }
+        if (doorDwellSeconds < 0) {
+            throw new IllegalArgumentException("Door dwell must not be negative");
+        }
+        if (controlCycleSeconds <= 0) {
+            throw new IllegalArgumentException("Control cycle must be greater than 0");
+        }
+    }
+
+    /**
+     * The car reaches its rated speed when the run is at least as long as the distance it needs to accelerate and decelerate,
+     * otherwise it starts braking halfway through the run.
+     * @param floors the number of floors between the stops.
+     * @return the travel time between the stops in seconds.
+     */
+    public double travelSeconds(int floors) {
+        if (floors <= 0) {
+            return 0;
+        }
+
+        double distance = floors * floorHeight;
+        double rampDistance = ratedSpeed * ratedSpeed / acceleration;
+        if (distance >= rampDistance) {
+            return distance / ratedSpeed + ratedSpeed / acceleration;
+        }
+        return 2 * Math.sqrt(distance / acceleration);
+    }
+
+    /**
+     * @param floors the number of floors the car moved.
+     * @param isStopped whether the car opened its doors at the end of the step.
+     * @return the duration of the step in seconds, a step that neither moved nor stopped takes one control cycle.
+     */
+    public double stepSeconds(int floors, boolean isStopped) {
+        if (floors <= 0 && !isStopped) {
+            return controlCycleSeconds;
+        }
+        return travelSeconds(floors) + (isStopped ? doorDwellSeconds : 0);
+    }
+}
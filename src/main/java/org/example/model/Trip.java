@@ -0,0 +1,44 @@
+package org.example.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Tracks a move request from the moment it is queued until the passenger arrives at the target floor.
+ * Times are {@link System#nanoTime()} values.
+ */
+@Getter
+@RequiredArgsConstructor
+public class Trip {
+    private final MoveRequest request;
+    private final long queuedAtNanos;
+
+    private boolean isPickedUp;
+    private long pickedUpAtNanos;
+    private long completedAtNanos;
+    private int weightsEpoch;
+
+    /**
+     * @param weightsEpoch the epoch of the dispatch cost weights the trip was assigned with.
+     */
+    public void setWeightsEpoch(int weightsEpoch) {
+        this.weightsEpoch = weightsEpoch;
+    }
+
+    public void pickUp(long nanos) {
+        this.isPickedUp = true;
+        this.pickedUpAtNanos = nanos;
+    }
+
+    public void complete(long nanos) {
+        this.completedAtNanos = nanos;
+    }
+
+    public long getWaitNanos() {
+        return pickedUpAtNanos - queuedAtNanos;
+    }
+
+    public long getRideNanos() {
+        return completedAtNanos - pickedUpAtNanos;
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.service;
+
+/**
+ * CostTableStatistics is a record that counts the lookups of the dispatcher's memoized cost table.
+ * @param hits the lookups answered from the table as is, because no car changed since the entry was last used
+ * @param refreshes the lookups answered from the table after re-evaluating only the cars that changed
+ * @param misses the lookups that evaluated the whole fleet
+ * @param invalidations the costs of single cars re-evaluated by refreshes
+ */
+public record CostTableStatistics(long hits, long refreshes, long misses, long invalidations) {
+
+    public long lookups() {
+        return hits + refreshes + misses;
+    }
+
+    /**
+     * @return the share of lookups answered without evaluating any car.
+     */
+    public double hitRate() {
+        return lookups() == 0 ? 0 : (double) hits / lookups();
+    }
+
+    /**
+     * @return the share of lookups answered without evaluating the whole fleet.
+     */
+    public double reuseRate() {
+        return lookups() == 0 ? 0 : (double) (hits + refreshes) / lookups();
+    }
+
+    @Override
+    public String toString() {
+        return "CostTableStatistics {" +
+                " hits=" + hits +
+                ", refreshes=" + refreshes +
+                ", misses=" + misses +
+                ", hitRate=" + String.format("%.2f", hitRate()) +
+                ", reuseRate=" + String.format("%.2f", reuseRate()) +
+                ", invalidations=" + invalidations +
+                " }";
+    }
+}
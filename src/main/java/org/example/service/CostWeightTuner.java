@@ -0,0 +1,179 @@
+package org.example.service;
+
+import org.example.model.Trip;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tunes the dispatch cost weights while the scenario runs.
+ * <p>
+ * The score of a time slice is the mean time from queueing to arrival of the trips that were dispatched with the slice's weights.
+ * A trip that is still in flight when the slice ends is scored with the time it has taken so far, so weights that push slow
+ * trips past the end of the slice are charged for them instead of dropping them. Trips dispatched with earlier weights are not
+ * scored. Time slices alternate between the incumbent weights and a candidate that moves one weight by one step. The traffic mix
+ * drifts hour by hour, so a candidate is only compared with the incumbent's score from the slice directly before it.
+ * A candidate that scores lower becomes the incumbent.
+ */
+public class CostWeightTuner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CostWeightTuner.class);
+    private static final double NANOS_PER_MS = 1_000_000.0;
+
+    /**
+     * The bounds {@link org.example.ScenarioConstraints} accepts, the cost per floor must also stay below the cost per stop.
+     */
+    private static final int MAX_COST_PER_FLOOR = 10;
+    private static final int MAX_COST_PER_STOP = 20;
+    private static final int MAX_COST_PER_QUEUED_STOP = 20;
+
+    private final ElevatorControllerService elevatorControllerService;
+    private final Random random;
+
+    /**
+     * Elevators record under the read lock, the window is swapped and the weights replaced under the write lock, so a trip is
+     * either scored in the window of its weights or not at all.
+     */
+    private final ReadWriteLock windowLock = new ReentrantReadWriteLock();
+    private TripStatistics window = new TripStatistics();
+    private Set<Trip> inFlight = ConcurrentHashMap.newKeySet();
+    private int windowEpoch;
+    private CostWeights incumbent;
+    private @Nullable CostWeights candidate;
+    private double incumbentScore = Double.NaN;
+
+    public CostWeightTuner(@NotNull ElevatorControllerService elevatorControllerService, long seed) {
+        this.elevatorControllerService = elevatorControllerService;
+        this.incumbent = elevatorControllerService.getWeights();
+        if (!isWithinBounds(incumbent.costPerFloor(), incumbent.costPerStop(), incumbent.costPerQueuedStop())) {
+            throw new IllegalArgumentException("Cost weights " + incumbent + " are outside the bounds of the scenario constraints");
+        }
+        this.windowEpoch = elevatorControllerService.getWeightsEpoch();
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Record a trip assigned to an elevator, called by the elevators.
+     * @param trip the assigned trip, stamped with the epoch of its weights.
+     */
+    public void recordAssignment(@NotNull Trip trip) {
+        windowLock.readLock().lock();
+        try {
+            if (trip.getWeightsEpoch() == windowEpoch) {
+                inFlight.add(trip);
+            }
+        } finally {
+            windowLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Record a completed trip, called by the elevators.
+     * @param trip the completed trip.
+     */
+    public void record(@NotNull Trip trip) {
+        windowLock.readLock().lock();
+        try {
+            if (trip.getWeightsEpoch() == windowEpoch) {
+                inFlight.remove(trip);
+                window.record(trip);
+            }
+        } finally {
+            windowLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Score the weights that ran during the time slice and pick the weights for the next one.
+     * @param timeSlice the time slice that finished.
+     */
+    public synchronized void onTimeSliceFinished(int timeSlice) {
+        windowLock.writeLock().lock();
+        try {
+            scoreWindow(timeSlice, System.nanoTime());
+            window = new TripStatistics();
+            inFlight = ConcurrentHashMap.newKeySet();
+            windowEpoch = elevatorControllerService.getWeightsEpoch();
+        } finally {
+            windowLock.writeLock().unlock();
+        }
+    }
+
+    private void scoreWindow(int timeSlice, long nowNanos) {
+        TripStatistics finished = window;
+        long tripCount = finished.getCount() + inFlight.size();
+        if (tripCount == 0) {
+            LOGGER.debug("Time slice {}: no dispatched trips, keeping cost weights {}", timeSlice, elevatorControllerService.getWeights());
+            return;
+        }
+
+        // The time so far is a lower bound of an in-flight trip's wait and ride.
+        double totalMs = (finished.getMeanWaitMs() + finished.getMeanRideMs()) * finished.getCount();
+        for (Trip trip : inFlight) {
+            totalMs += (nowNanos - trip.getQueuedAtNanos()) / NANOS_PER_MS;
+        }
+        double score = totalMs / tripCount;
+        if (candidate == null) {
+            incumbentScore = score;
+            candidate = propose(incumbent);
+            LOGGER.info("Time slice {}: {} scored {} ms, trying {}",
+                    timeSlice, incumbent, formatMs(score), candidate);
+            elevatorControllerService.setWeights(candidate);
+        } else {
+            boolean isAccepted = score < incumbentScore;
+            LOGGER.info("Time slice {}: {} scored {} ms against {} ms for {}, {}",
+                    timeSlice, candidate, formatMs(score), formatMs(incumbentScore), incumbent,
+                    isAccepted ? "accepted" : "rejected");
+            if (isAccepted) {
+                incumbent = candidate;
+            }
+            candidate = null;
+            elevatorControllerService.setWeights(incumbent);
+        }
+    }
+
+    /**
+     * @return the weights that have scored best so far.
+     */
+    public synchronized @NotNull CostWeights getIncumbent() {
+        return incumbent;
+    }
+
+    /**
+     * @return a neighbour of the weights that moves one weight by one step and stays within the scenario's bounds.
+     */
+    private @NotNull CostWeights propose(@NotNull CostWeights weights) {
+        // Every weights within the bounds have a neighbour within the bounds, so the loop ends.
+        while (true) {
+            int step = random.nextBoolean() ? 1 : -1;
+            int costPerFloor = weights.costPerFloor();
+            int costPerStop = weights.costPerStop();
+            int costPerQueuedStop = weights.costPerQueuedStop();
+            switch (random.nextInt(3)) {
+                case 0 -> costPerFloor += step;
+                case 1 -> costPerStop += step;
+                default -> costPerQueuedStop += step;
+            }
+            if (isWithinBounds(costPerFloor, costPerStop, costPerQueuedStop)) {
+                return new CostWeights(costPerFloor, costPerStop, costPerQueuedStop);
+            }
+        }
+    }
+
+    private static boolean isWithinBounds(int costPerFloor, int costPerStop, int costPerQueuedStop) {
+        return costPerFloor > 0 && costPerFloor <= MAX_COST_PER_FLOOR &&
+                costPerStop > 0 && costPerStop <= MAX_COST_PER_STOP &&
+                costPerFloor < costPerStop &&
+                costPerQueuedStop > 0 && costPerQueuedStop <= MAX_COST_PER_QUEUED_STOP;
+    }
+
+    private static @NotNull String formatMs(double ms) {
+        return String.format("%.1f", ms);
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.service;
+
+import org.example.model.PriorityClass;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * CostWeights is a record that defines the weights of the dispatch cost formula.
+ * @param costPerFloor the cost of each floor between the elevator and the pickup floor
+ * @param costPerStop the fixed cost of stopping for a request
+ * @param costPerQueuedStop the penalty for each stop already queued in the elevator's direction, distributes requests across elevators
+ */
+public record CostWeights(int costPerFloor, int costPerStop, int costPerQueuedStop) {
+
+    public CostWeights {
+        if (costPerFloor <= 0 || costPerStop <= 0 || costPerQueuedStop <= 0) {
+            throw new IllegalArgumentException("Cost weights must be greater than 0");
+        }
+    }
+
+    /**
+     * The original formula penalizes each queued stop as one floor of travel.
+     */
+    public static CostWeights of(int costPerFloor, int costPerStop) {
+        return new CostWeights(costPerFloor, costPerStop, costPerFloor);
+    }
+
+    /**
+     * Each stop already queued delays the pickup, a higher priority class pays more for that delay than for distance, and a
+     * lower class less. Only the ratio matters, the cheapest elevator is the same for any common multiple of the weights.
+     * @param priority the priority class of the request.
+     * @return the weights to evaluate the request with.
+     */
+    public @NotNull CostWeights forPriority(@NotNull PriorityClass priority) {
+        if (priority.getQueuedStopWeight() == 1 && priority.getTravelWeight() == 1) {
+            return this;
+        }
+        return new CostWeights(
+                costPerFloor * priority.getTravelWeight(),
+                costPerStop * priority.getTravelWeight(),
+                costPerQueuedStop * priority.getQueuedStopWeight());
+    }
+}
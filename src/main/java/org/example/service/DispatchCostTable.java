@@ -0,0 +1,162 @@
+package org.example.service;
+
+import org.example.model.FleetState;
+import org.example.model.PriorityClass;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Memoizes the cost of every elevator for each pickup floor, direction, and priority class.
+ * <p>
+ * Requests in a burst share pickup floors, and an assignment or a step changes only one car, so between two lookups of the same
+ * floor most of the fleet is unchanged. Each entry keeps the cost of every car, the cheapest car, and the fleet version it was
+ * evaluated at. A lookup reads the cars that changed since then from the fleet's change log, re-evaluates only those, and
+ * updates the cheapest car from their new costs, ties go to the lowest slot like the kernels. The whole fleet is searched again
+ * only when the cheapest car got more expensive. When no car changed at all the entry's cheapest car is returned as is.
+ * <p>
+ * Re-evaluating a car costs about as much as the kernel spends on {@link #CARS_PER_REFRESHED_CAR} cars, so when more cars changed
+ * than that share of the fleet, or the change log no longer holds the changes, the entry is evaluated from scratch by the kernel
+ * instead. An entry is also evaluated from scratch the first time its key is looked up, and when the weights of its class are
+ * replaced.
+ * <p>
+ * There is one entry per floor, direction, and class, so the table is bounded by the building and never evicts.
+ * Lookups run on the dispatcher thread while it holds its lock, the table is not thread-safe.
+ */
+class DispatchCostTable {
+    private static final int DIRECTION_COUNT = 2;
+    private static final int PRIORITY_COUNT = PriorityClass.values().length;
+
+    /**
+     * The number of cars the vector kernel evaluates in the time a refresh re-evaluates one changed car, measured on 8, 32, and
+     * 150 cars.
+     */
+    static final int CARS_PER_REFRESHED_CAR = 8;
+
+    private final FleetCostKernel costKernel;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Indexed by {@link #index}, null until the key is first looked up.
+     */
+    private @Nullable Entry[] entries = new Entry[0];
+
+    /**
+     * The slots read from the change log by a refresh.
+     */
+    private int[] changedSlots = new int[0];
+
+    DispatchCostTable(@NotNull FleetCostKernel costKernel) {
+        this.costKernel = costKernel;
+    }
+
+    /**
+     * @param weights the weights of the request's priority class.
+     * @return the slot of the cheapest valid elevator, or -1 if no elevator is valid.
+     */
+    int findLowestCost(@NotNull FleetState fleetState,
+                       int pickupFloor,
+                       int requestDirection,
+                       @NotNull PriorityClass priority,
+                       @NotNull CostWeights weights) {
+        int index = index(pickupFloor, requestDirection, priority);
+        if (index >= entries.length) {
+            entries = Arrays.copyOf(entries, Math.max(index + 1, entries.length * 2));
+        }
+
+        Entry entry = entries[index];
+        if (entry == null || !entry.weights.equals(weights) || entry.costs.length != fleetState.getSize()) {
+            // First lookup of the key, the tuner replaced the weights, or the table is used with a different fleet.
+            entry = new Entry(weights, fleetState.getSize());
+            entries[index] = entry;
+            return evaluate(entry, fleetState, pickupFloor, requestDirection);
+        }
+
+        long fleetVersion = fleetState.getVersion();
+        if (fleetVersion == entry.fleetVersion) {
+            hits.increment();
+            return entry.slot;
+        }
+
+        int refreshLimit = Math.max(1, fleetState.getSize() / CARS_PER_REFRESHED_CAR);
+        if (changedSlots.length < refreshLimit) {
+            changedSlots = new int[refreshLimit];
+        }
+        int changedCount = fleetState.getChangedSlots(entry.fleetVersion, fleetVersion, changedSlots);
+        if (changedCount < 0 || changedCount > refreshLimit) {
+            return evaluate(entry, fleetState, pickupFloor, requestDirection);
+        }
+
+        refreshes.increment();
+        invalidations.add(changedCount);
+        entry.fleetVersion = fleetVersion;
+        entry.refresh(fleetState, pickupFloor, requestDirection, changedSlots, changedCount, costKernel);
+        return entry.slot;
+    }
+
+    @NotNull CostTableStatistics getStatistics() {
+        return new CostTableStatistics(hits.sum(), refreshes.sum(), misses.sum(), invalidations.sum());
+    }
+
+    private int evaluate(@NotNull Entry entry, @NotNull FleetState fleetState, int pickupFloor, int requestDirection) {
+        misses.increment();
+        // The version is read before the state, a car that changes meanwhile is re-evaluated by the next lookup.
+        entry.fleetVersion = fleetState.getVersion();
+        costKernel.evaluate(fleetState, pickupFloor, requestDirection, entry.weights, entry.costs);
+        entry.setSlot(costKernel.lowestSlot(entry.costs, entry.costs.length));
+        return entry.slot;
+    }
+
+    private static int index(int pickupFloor, int requestDirection, @NotNull PriorityClass priority) {
+        return (pickupFloor * DIRECTION_COUNT + requestDirection - 1) * PRIORITY_COUNT + priority.ordinal();
+    }
+
+    /**
+     * The cost of every car for one key, the cheapest car, and the fleet version the costs were evaluated at.
+     */
+    private static final class Entry {
+        private final CostWeights weights;
+        private final int[] costs;
+        private long fleetVersion;
+        private int slot;
+        private int lowestCost;
+
+        private Entry(@NotNull CostWeights weights, int size) {
+            this.weights = weights;
+            this.costs = new int[size];
+        }
+
+        /**
+         * Re-evaluates the changed cars, and searches the whole fleet only if the cheapest car got more expensive.
+         * @param changedSlots the cars that changed since the entry was last used, a car may be listed more than once.
+         */
+        private void refresh(@NotNull FleetState fleetState, int pickupFloor, int requestDirection,
+                             int @NotNull [] changedSlots, int changedCount, @NotNull FleetCostKernel costKernel) {
+            boolean isLowestCostRaised = false;
+            for (int i = 0; i < changedCount; i++) {
+                int changedSlot = changedSlots[i];
+                int cost = ScalarFleetCostKernel.cost(fleetState, changedSlot, pickupFloor, requestDirection, weights);
+                costs[changedSlot] = cost;
+                if (cost < lowestCost || cost == lowestCost && changedSlot < slot) {
+                    slot = changedSlot;
+                    lowestCost = cost;
+                } else if (changedSlot == slot && cost > lowestCost) {
+                    isLowestCostRaised = true;
+                }
+            }
+            if (isLowestCostRaised) {
+                setSlot(costKernel.lowestSlot(costs, costs.length));
+            }
+        }
+
+        private void setSlot(int slot) {
+            this.slot = slot;
+            this.lowestCost = slot < 0 ? Integer.MAX_VALUE : costs[slot];
+        }
+    }
+}
@@ -1,80 +1,101 @@
 package org.example.service;
 
-import lombok.AllArgsConstructor;
-import org.example.controller.ElevatorController;
 import org.example.model.Direction;
+import org.example.model.FleetState;
 import org.example.model.MoveRequest;
+import org.example.model.Trip;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.List;
-import java.util.Optional;
-
-import static org.example.model.Direction.DOWN;
-import static org.example.model.Direction.UP;
+import java.util.OptionalInt;
 
 /**
  * Service to find the best elevator for a move request.
  */
-@AllArgsConstructor
 public class ElevatorControllerService {
 
-    private final int costPerFloor;
-    private final int costPerStop;
+    private final DispatchCostTable costTable;
+
+    /**
+     * The weights may be replaced while the scenario runs, see {@link CostWeightTuner}.
+     * The weights and their epoch are swapped as one, so a trip is stamped with the epoch of the weights it was dispatched with.
+     */
+    private volatile WeightsEpoch weightsEpoch;
+
+    public ElevatorControllerService(int costPerFloor, int costPerStop) {
+        this(CostWeights.of(costPerFloor, costPerStop));
+    }
+
+    public ElevatorControllerService(@NotNull CostWeights weights) {
+        this(weights, FleetCostKernel.create());
+    }
+
+    ElevatorControllerService(@NotNull CostWeights weights, @NotNull FleetCostKernel costKernel) {
+        this.weightsEpoch = new WeightsEpoch(weights, 0);
+        this.costTable = new DispatchCostTable(costKernel);
+    }
 
     /**
      * Find the best elevator for a move request.
-     * @param elevators the list of elevators to choose from.
+     * Validity and cost are evaluated for every elevator in a single pass over the fleet state, and memoized per car until the
+     * car's state changes, see {@link DispatchCostTable}. The service is not thread-safe, requests are dispatched one at a time.
+     * The cost is weighted by the request's priority class, see {@link CostWeights#forPriority}.
+     * @param fleetState the state of the elevators to choose from.
      * @param request the request to find an elevator for.
-     * @return the best elevator for the request, or an empty optional if no elevator is available.
+     * @return the id of the best elevator for the request, or an empty optional if no elevator is available.
      */
-    public Optional<ElevatorController> findBestElevator(@NotNull List<ElevatorController> elevators, @NotNull MoveRequest request) {
-        double lowestCost = Double.MAX_VALUE;
-        Integer bestIndex = null;
-
-        for (int i = 0; i < elevators.size(); i++) {
-            ElevatorController elevatorController = elevators.get(i);
-            if (isValidElevator(elevatorController, request)) {
-                double cost = getCost(request, elevatorController);
-                if (cost < lowestCost) {
-                    lowestCost = cost;
-                    bestIndex = i;
-                }
-            }
+    public OptionalInt findBestElevator(@NotNull FleetState fleetState, @NotNull MoveRequest request) {
+        return findBestElevator(fleetState, request, weightsEpoch.weights());
+    }
+
+    /**
+     * Find the best elevator for a trip, and stamp the trip with the epoch of the weights it was dispatched with.
+     * @param fleetState the state of the elevators to choose from.
+     * @param trip the trip to find an elevator for.
+     * @return the id of the best elevator for the trip, or an empty optional if no elevator is available.
+     */
+    public OptionalInt findBestElevator(@NotNull FleetState fleetState, @NotNull Trip trip) {
+        WeightsEpoch current = weightsEpoch;
+        OptionalInt bestElevatorId = findBestElevator(fleetState, trip.getRequest(), current.weights());
+        trip.setWeightsEpoch(current.epoch());
+        return bestElevatorId;
+    }
+
+    private OptionalInt findBestElevator(@NotNull FleetState fleetState, @NotNull MoveRequest request, @NotNull CostWeights weights) {
+        if (request.getDirection() == Direction.NONE) {
+            throw new IllegalArgumentException("No-op move requests are not supported");
         }
 
-        return bestIndex == null ? Optional.empty() : Optional.of(elevators.get(bestIndex));
+        int bestSlot = costTable.findLowestCost(
+                fleetState,
+                request.currentFloor(),
+                FleetState.toCode(request.getDirection()),
+                request.priority(),
+                weights.forPriority(request.priority()));
+        return bestSlot < 0 ? OptionalInt.empty() : OptionalInt.of(bestSlot);
+    }
+
+    public @NotNull CostWeights getWeights() {
+        return weightsEpoch.weights();
     }
 
     /**
-     * Calculate the cost of a move request for an elevator.
-     * @param request the move request to calculate the cost for.
-     * @param elevatorController the elevator to calculate the cost for.
-     * @return the cost of the move request for the elevator.
+     * @return the epoch of the current weights, it changes every time the weights are replaced.
      */
-    private double getCost(@NotNull MoveRequest request, @NotNull ElevatorController elevatorController) {
-        int floorsAway = Math.abs(elevatorController.getElevator().getCurrentFloor() - request.currentFloor());
-        double cost = (double) floorsAway * costPerFloor + costPerStop;
-        // Distribute the requests across the elevators.
-        switch (elevatorController.getElevator().getDirection()) {
-            case UP -> cost += elevatorController.getElevator().getUpQueue().size() * costPerFloor;
-            case DOWN -> cost += elevatorController.getElevator().getDownQueue().size() * costPerFloor;
-        }
-        return cost;
+    public int getWeightsEpoch() {
+        return weightsEpoch.epoch();
+    }
+
+    public synchronized void setWeights(@NotNull CostWeights weights) {
+        weightsEpoch = new WeightsEpoch(weights, weightsEpoch.epoch() + 1);
     }
 
     /**
-     * Check if an elevator is valid for a move request.
-     * @param elevatorController the elevator to check.
-     * @param moveRequest the move request to check.
-     * @return true if the elevator is valid, false otherwise.
+     * @return the hit, refresh, miss, and invalidation counts of the memoized cost table.
      */
-    public boolean isValidElevator(@NotNull ElevatorController elevatorController, @NotNull MoveRequest moveRequest) {
-        if (moveRequest.getDirection() == Direction.NONE) {
-            throw new IllegalArgumentException("No-op move requests are not supported");
-        }
+    public @NotNull CostTableStatistics getCostTableStatistics() {
+        return costTable.getStatistics();
+    }
 
-        return elevatorController.getElevator().getDirection() == Direction.NONE ||
-                (moveRequest.getDirection() == UP && elevatorController.getElevator().getCurrentFloor() <= moveRequest.currentFloor()) ||
-                (moveRequest.getDirection() == DOWN && elevatorController.getElevator().getCurrentFloor() >= moveRequest.currentFloor());
+    private record WeightsEpoch(@NotNull CostWeights weights, int epoch) {
     }
 }
@@ -0,0 +1,42 @@
+package org.example.service;
+
+import org.example.model.FleetState;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Evaluates validity and cost for every elevator in the fleet, and finds the cheapest valid one.
+ * <p>
+ * cost = floorsAway * costPerFloor + stopsQueuedInCurrentDirection * costPerQueuedStop + costPerStop
+ */
+interface FleetCostKernel {
+
+    /**
+     * Writes the cost of every elevator in the fleet, {@link Integer#MAX_VALUE} for an elevator that is not valid.
+     * @param fleetState the fleet to evaluate.
+     * @param pickupFloor the floor of the request.
+     * @param requestDirection the {@link FleetState} direction code of the request, either UP or DOWN.
+     * @param weights the weights of the cost formula.
+     * @param costs the array to write to, indexed by slot, must hold at least the fleet size.
+     */
+    void evaluate(@NotNull FleetState fleetState, int pickupFloor, int requestDirection, @NotNull CostWeights weights,
+                  int @NotNull [] costs);
+
+    /**
+     * @param costs the costs written by {@link #evaluate}, indexed by slot.
+     * @param size the number of slots to search.
+     * @return the slot with the lowest cost, ties go to the lowest slot, or -1 if every cost is {@link Integer#MAX_VALUE}.
+     */
+    int lowestSlot(int @NotNull [] costs, int size);
+
+    /**
+     * @return the vector kernel if the jdk.incubator.vector module is available, otherwise the scalar kernel.
+     */
+    static @NotNull FleetCostKernel create() {
+        FleetCostKernel kernel = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent() ?
+                new VectorFleetCostKernel() :
+                new ScalarFleetCostKernel();
+        LoggerFactory.getLogger(FleetCostKernel.class).info("Dispatch cost kernel: {}", kernel.getClass().getSimpleName());
+        return kernel;
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.service;
+
+import org.example.model.FleetState;
+import org.jetbrains.annotations.NotNull;
+
+import static org.example.model.FleetState.DIRECTION_DOWN;
+import static org.example.model.FleetState.DIRECTION_NONE;
+import static org.example.model.FleetState.DIRECTION_UP;
+
+/**
+ * Fallback kernel used when the Vector API is not available at runtime.
+ */
+class ScalarFleetCostKernel implements FleetCostKernel {
+
+    @Override
+    public void evaluate(@NotNull FleetState fleetState, int pickupFloor, int requestDirection, @NotNull CostWeights weights,
+                         int @NotNull [] costs) {
+        for (int i = 0; i < fleetState.getSize(); i++) {
+            costs[i] = cost(fleetState, i, pickupFloor, requestDirection, weights);
+        }
+    }
+
+    @Override
+    public int lowestSlot(int @NotNull [] costs, int size) {
+        int lowestCost = Integer.MAX_VALUE;
+        int lowestSlot = -1;
+        for (int i = 0; i < size; i++) {
+            if (costs[i] < lowestCost) {
+                lowestCost = costs[i];
+                lowestSlot = i;
+            }
+        }
+        return lowestSlot;
+    }
+
+    /**
+     * @return the cost of the elevator in the slot, or {@link Integer#MAX_VALUE} if the elevator is not valid for the request.
+     */
+    static int cost(@NotNull FleetState fleetState, int slot, int pickupFloor, int requestDirection, @NotNull CostWeights weights) {
+        return cost(fleetState.getCurrentFloor(slot), fleetState.getDirection(slot), fleetState.getUpStops(slot),
+                fleetState.getDownStops(slot), pickupFloor, requestDirection, weights);
+    }
+
+    /**
+     * @return the cost of an elevator with the given state, or {@link Integer#MAX_VALUE} if it is not valid for the request.
+     */
+    static int cost(int floor, int direction, int upStops, int downStops, int pickupFloor, int requestDirection,
+                    @NotNull CostWeights weights) {
+        if (!isValid(floor, direction, pickupFloor, requestDirection)) {
+            return Integer.MAX_VALUE;
+        }
+
+        int queued = switch (direction) {
+            case DIRECTION_UP -> upStops;
+            case DIRECTION_DOWN -> downStops;
+            default -> 0;
+        };
+        return Math.abs(floor - pickupFloor) * weights.costPerFloor() + queued * weights.costPerQueuedStop() + weights.costPerStop();
+    }
+
+    /**
+     * An elevator is valid for a request if it is idle, or if the pickup floor is still ahead of it in the request's direction.
+     */
+    static boolean isValid(int floor, int direction, int pickupFloor, int requestDirection) {
+        return direction == DIRECTION_NONE ||
+                (requestDirection == DIRECTION_UP && floor <= pickupFloor) ||
+                (requestDirection == DIRECTION_DOWN && floor >= pickupFloor);
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.service;
+
+import org.example.model.PriorityClass;
+import org.example.model.Trip;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates the realized wait and ride times of completed trips.
+ * Trips are recorded concurrently by the elevators.
+ * <p>
+ * The wait times are also kept per {@link PriorityClass} in a log-scale histogram, so the tail of each class can be reported.
+ */
+public class TripStatistics {
+    private static final double NANOS_PER_MS = 1_000_000.0;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder rideNanos = new LongAdder();
+    private final Map<PriorityClass, WaitSamples> waitsByPriority = new EnumMap<>(PriorityClass.class);
+
+    public TripStatistics() {
+        for (PriorityClass priority : PriorityClass.values()) {
+            waitsByPriority.put(priority, new WaitSamples());
+        }
+    }
+
+    public void record(@NotNull Trip trip) {
+        count.increment();
+        waitNanos.add(trip.getWaitNanos());
+        rideNanos.add(trip.getRideNanos());
+        waitsByPriority.get(trip.getRequest().priority()).record(trip);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMeanWaitMs() {
+        long trips = count.sum();
+        return trips == 0 ? 0 : waitNanos.sum() / NANOS_PER_MS / trips;
+    }
+
+    public double getMeanRideMs() {
+        long trips = count.sum();
+        return trips == 0 ? 0 : rideNanos.sum() / NANOS_PER_MS / trips;
+    }
+
+    public long getCount(@NotNull PriorityClass priority) {
+        return waitsByPriority.get(priority).count();
+    }
+
+    /**
+     * @param priority the priority class.
+     * @param percentile the percentile, between 0 exclusive and 100 inclusive.
+     * @return the nearest-rank percentile of the class's wait times, or 0 if no trip of the class completed.
+     */
+    public double getWaitPercentileMs(@NotNull PriorityClass priority, double percentile) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in (0, 100]");
+        }
+        return waitsByPriority.get(priority).percentile(percentile) / NANOS_PER_MS;
+    }
+
+    /**
+     * @return the number of the class's trips that waited longer than their latency target.
+     */
+    public long getLatencyTargetMisses(@NotNull PriorityClass priority) {
+        return waitsByPriority.get(priority).latencyTargetMisses();
+    }
+
+    /**
+     * The wait times of a class in a histogram with {@link #SUB_BUCKETS} buckets per power of two, so memory is fixed however
+     * many trips complete and a percentile is within an eighth of the exact value.
+     */
+    private static final class WaitSamples {
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+        private final long[] buckets = new long[(Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS];
+        private long count;
+        private long maxWaitNanos;
+        private long latencyTargetMisses;
+
+        private synchronized void record(@NotNull Trip trip) {
+            long waitNanos = Math.max(0, trip.getWaitNanos());
+            buckets[bucket(waitNanos)]++;
+            count++;
+            maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+            Duration latencyTarget = trip.getRequest().latencyTarget();
+            if (latencyTarget != null && trip.getWaitNanos() > latencyTarget.toNanos()) {
+                latencyTargetMisses++;
+            }
+        }
+
+        private synchronized long count() {
+            return count;
+        }
+
+        private synchronized long latencyTargetMisses() {
+            return latencyTargetMisses;
+        }
+
+        /**
+         * @return the upper bound of the bucket holding the nearest-rank percentile, capped at the longest wait.
+         */
+        private synchronized long percentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max((long) Math.ceil(percentile / 100 * count), 1);
+            long seen = 0;
+            for (int bucket = 0; bucket < buckets.length; bucket++) {
+                seen += buckets[bucket];
+                if (seen >= rank) {
+                    return Math.min(lowerBound(bucket + 1) - 1, maxWaitNanos);
+                }
+            }
+            return maxWaitNanos;
+        }
+
+        /**
+         * Values below {@link #SUB_BUCKETS} have a bucket each, larger values share a bucket with the values that agree in
+         * their highest {@link #SUB_BUCKET_BITS} + 1 bits.
+         */
+        private static int bucket(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+            int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        private static long lowerBound(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            if (exponent >= Long.SIZE - 1) {
+                return Long.MAX_VALUE;
+            }
+            return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        }
+    }
+}
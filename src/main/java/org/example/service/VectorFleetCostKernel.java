@@ -0,0 +1,106 @@
+package org.example.service;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import org.example.model.FleetState;
+import org.jetbrains.annotations.NotNull;
+
+import static org.example.model.FleetState.DIRECTION_DOWN;
+import static org.example.model.FleetState.DIRECTION_NONE;
+import static org.example.model.FleetState.DIRECTION_UP;
+
+/**
+ * Evaluates a full vector of elevators per iteration with the incubating Vector API.
+ * <p>
+ * Only loaded when the jdk.incubator.vector module is resolved, see {@link FleetCostKernel#create()}.
+ * The kernel evaluates a copy of the fleet state in scratch arrays, it is not thread-safe, the dispatcher calls it while holding
+ * its lock.
+ */
+class VectorFleetCostKernel implements FleetCostKernel {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private int[] floors = new int[0];
+    private int[] directions = new int[0];
+    private int[] upStops = new int[0];
+    private int[] downStops = new int[0];
+
+    @Override
+    public void evaluate(@NotNull FleetState fleetState, int pickupFloor, int requestDirection, @NotNull CostWeights weights,
+                         int @NotNull [] costs) {
+        int size = fleetState.getSize();
+        if (floors.length < size) {
+            floors = new int[size];
+            directions = new int[size];
+            upStops = new int[size];
+            downStops = new int[size];
+        }
+        fleetState.copyTo(floors, directions, upStops, downStops);
+
+        IntVector invalid = IntVector.broadcast(SPECIES, Integer.MAX_VALUE);
+        int upperBound = SPECIES.loopBound(size);
+        int i = 0;
+        for (; i < upperBound; i += SPECIES.length()) {
+            IntVector floor = IntVector.fromArray(SPECIES, floors, i);
+            IntVector direction = IntVector.fromArray(SPECIES, directions, i);
+
+            VectorMask<Integer> inPath = requestDirection == DIRECTION_UP ?
+                    floor.compare(VectorOperators.LE, pickupFloor) :
+                    floor.compare(VectorOperators.GE, pickupFloor);
+            VectorMask<Integer> valid = direction.eq(DIRECTION_NONE).or(inPath);
+
+            IntVector queued = IntVector.zero(SPECIES)
+                    .blend(IntVector.fromArray(SPECIES, upStops, i), direction.eq(DIRECTION_UP))
+                    .blend(IntVector.fromArray(SPECIES, downStops, i), direction.eq(DIRECTION_DOWN));
+            IntVector cost = floor.sub(pickupFloor).abs().mul(weights.costPerFloor())
+                    .add(queued.mul(weights.costPerQueuedStop()))
+                    .add(weights.costPerStop());
+            invalid.blend(cost, valid).intoArray(costs, i);
+        }
+
+        for (; i < size; i++) {
+            costs[i] = ScalarFleetCostKernel.cost(floors[i], directions[i], upStops[i], downStops[i], pickupFloor, requestDirection, weights);
+        }
+    }
+
+    @Override
+    public int lowestSlot(int @NotNull [] costs, int size) {
+        IntVector lowest = IntVector.broadcast(SPECIES, Integer.MAX_VALUE);
+        int upperBound = SPECIES.loopBound(size);
+        int i = 0;
+        for (; i < upperBound; i += SPECIES.length()) {
+            lowest = lowest.min(IntVector.fromArray(SPECIES, costs, i));
+        }
+        int lowestCost = lowest.reduceLanes(VectorOperators.MIN);
+        for (; i < size; i++) {
+            lowestCost = Math.min(lowestCost, costs[i]);
+        }
+        return firstSlotOf(lowestCost, costs, size);
+    }
+
+    /**
+     * Argmin, the first slot holding the lowest cost matches the tie-breaking of the scalar kernel.
+     * @return the first slot holding the cost, or -1 if the cost is {@link Integer#MAX_VALUE}.
+     */
+    private static int firstSlotOf(int lowestCost, int @NotNull [] costs, int size) {
+        if (lowestCost == Integer.MAX_VALUE) {
+            return -1;
+        }
+
+        int upperBound = SPECIES.loopBound(size);
+        int i = 0;
+        for (; i < upperBound; i += SPECIES.length()) {
+            VectorMask<Integer> match = IntVector.fromArray(SPECIES, costs, i).eq(lowestCost);
+            if (match.anyTrue()) {
+                return i + match.firstTrue();
+            }
+        }
+        for (; i < size; i++) {
+            if (costs[i] == lowestCost) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -1,10 +1,16 @@
 package org.example.controller;
 
 import org.example.model.Direction;
+import org.example.model.Elevator;
+import org.example.model.FleetState;
 import org.example.model.MoveRequest;
+import org.example.model.TravelModel;
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -16,7 +22,7 @@ public class ElevatorControllerTest {
 
     @BeforeEach
     void setUp() {
-        elevatorController = new ElevatorController(1, 10, new AtomicBoolean(false));
+        elevatorController = controller(PlannerType.DIRECTIONAL_QUEUE, null);
     }
 
     @Test
@@ -100,6 +106,90 @@ public class ElevatorControllerTest {
         assertThat(elevatorController.getElevator().getDownQueue().size()).isEqualTo(0);
     }
 
+    @Test
+    void stopAheadJoinsSweep() {
+        ElevatorController elevatorController = controller(PlannerType.COLLECTIVE, null);
+        elevatorController.queueRequest(new MoveRequest(1, 8));
+        elevatorController.move();
+        elevatorController.move();
+        assertThat(elevatorController.getElevator().getCurrentFloor()).isEqualTo(3);
+
+        elevatorController.queueRequest(new MoveRequest(5, 7));
+        moveElevator(elevatorController);
+        assertThat(elevatorController.getElevator().getCurrentFloor()).isEqualTo(5);
+
+        moveElevator(elevatorController);
+        assertThat(elevatorController.getElevator().getCurrentFloor()).isEqualTo(7);
+
+        moveElevator(elevatorController);
+        assertThat(elevatorController.getElevator().getCurrentFloor()).isEqualTo(8);
+        assertThat(elevatorController.getElevator().getFloorsTravelled()).isEqualTo(7);
+        assertThat(elevatorController.getElevator().getReversals()).isEqualTo(0);
+    }
+
+    @Test
+    void pickupBehindIsServedAfterSweep() {
+        ElevatorController elevatorController = controller(PlannerType.COLLECTIVE, null);
+        elevatorController.queueRequest(new MoveRequest(1, 8));
+        elevatorController.move();
+        elevatorController.move();
+        assertThat(elevatorController.getElevator().getCurrentFloor()).isEqualTo(3);
+
+        elevatorController.queueRequest(new MoveRequest(2, 6));
+        moveElevator(elevatorController);
+        assertThat(elevatorController.getElevator().getCurrentFloor()).isEqualTo(8);
+
+        moveElevator(elevatorController);
+        assertThat(elevatorController.getElevator().getCurrentFloor()).isEqualTo(2);
+
+        moveElevator(elevatorController);
+        assertThat(elevatorController.getElevator().getCurrentFloor()).isEqualTo(6);
+        assertThat(elevatorController.getElevator().getReversals()).isEqualTo(2);
+        assertThat(elevatorController.getElevator().getUpQueue()).isEmpty();
+        assertThat(elevatorController.getElevator().getDownQueue()).isEmpty();
+    }
+
+    @Test
+    void travelModelMovesToNextStopInOneStep() {
+        ElevatorController elevatorController = controller(PlannerType.COLLECTIVE, TravelModel.MID_RISE);
+        elevatorController.queueRequest(new MoveRequest(1, 4));
+        elevatorController.queueRequest(new MoveRequest(1, 9));
+
+        elevatorController.move();
+        assertThat(elevatorController.getElevator().getCurrentFloor()).isEqualTo(4);
+
+        moveElevator(elevatorController);
+        moveElevator(elevatorController);
+        assertThat(elevatorController.getElevator().getCurrentFloor()).isEqualTo(9);
+        assertThat(elevatorController.getElevator().getFloorsTravelled()).isEqualTo(8);
+        assertThat(elevatorController.getElevator().getTravelSteps()).isEqualTo(2);
+    }
+
+    @Test
+    void idleStepsAreNotReported() {
+        List<Integer> steppedFloors = new ArrayList<>();
+        ElevatorController elevatorController = new ElevatorController(
+                1,
+                topFloor,
+                new FleetState(2),
+                new OutstandingWork(),
+                new ElevatorListener() {
+                    @Override
+                    public void onStep(@NotNull Elevator elevator) {
+                        steppedFloors.add(elevator.getCurrentFloor());
+                    }
+                },
+                PlannerType.DIRECTIONAL_QUEUE,
+                null,
+                new AtomicBoolean(false));
+        elevatorController.move();
+        elevatorController.queueRequest(new MoveRequest(1, 3));
+        moveElevator(elevatorController);
+        elevatorController.move();
+
+        assertThat(steppedFloors).isEqualTo(List.of(2, 3, 3));
+    }
+
     private void moveElevator(ElevatorController elevatorController) {
         int count = 1;
         Direction direction = elevatorController.move();
@@ -113,6 +203,18 @@ public class ElevatorControllerTest {
         }
     }
 
+    private ElevatorController controller(PlannerType plannerType, TravelModel travelModel) {
+        return new ElevatorController(
+                1,
+                topFloor,
+                new FleetState(2),
+                new OutstandingWork(),
+                ElevatorListener.NONE,
+                plannerType,
+                travelModel,
+                new AtomicBoolean(false));
+    }
+
     private ElevatorController topFloorElevator() {
         MoveRequest request = new MoveRequest(1, topFloor);
         elevatorController.queueRequest(request);
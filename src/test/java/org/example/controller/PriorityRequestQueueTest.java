@@ -0,0 +1,118 @@
+package org.example.controller;
+
+import org.example.model.MoveRequest;
+import org.example.model.PriorityClass;
+import org.example.model.Trip;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PriorityRequestQueueTest {
+
+    private static final long AGING_STEP_NANOS = 1_000;
+
+    private final PriorityRequestQueue priorityRequestQueue = new PriorityRequestQueue(Duration.ofNanos(AGING_STEP_NANOS));
+
+    @Test
+    void higherPriorityIsDispatchedFirst() {
+        Trip standard = trip(PriorityClass.STANDARD, null, 0);
+        Trip emergency = trip(PriorityClass.EMERGENCY, null, 10);
+        priorityRequestQueue.add(standard);
+        priorityRequestQueue.add(emergency);
+
+        assertThat(priorityRequestQueue.peek(20)).isSameAs(emergency);
+        priorityRequestQueue.remove(emergency);
+        assertThat(priorityRequestQueue.peek(20)).isSameAs(standard);
+        priorityRequestQueue.remove(standard);
+        assertThat(priorityRequestQueue.isEmpty()).isTrue();
+        assertThat(priorityRequestQueue.peek(20)).isNull();
+    }
+
+    @Test
+    void agingPromotesWaitingRequests() {
+        Trip freight = trip(PriorityClass.FREIGHT, null, 0);
+        Trip standard = trip(PriorityClass.STANDARD, null, AGING_STEP_NANOS / 2);
+        priorityRequestQueue.add(freight);
+        priorityRequestQueue.add(standard);
+
+        // Freight has not waited a full aging step yet, standard is still ahead of it.
+        assertThat(priorityRequestQueue.peek(AGING_STEP_NANOS / 2)).isSameAs(standard);
+        // Freight has aged to the standard level and was queued first.
+        assertThat(priorityRequestQueue.peek(AGING_STEP_NANOS)).isSameAs(freight);
+    }
+
+    @Test
+    void agedRequestsNeverPassAccessibility() {
+        Trip freight = trip(PriorityClass.FREIGHT, null, 0);
+        Trip standard = trip(PriorityClass.STANDARD, null, 0);
+        Trip accessibility = trip(PriorityClass.ACCESSIBILITY, null, 10 * AGING_STEP_NANOS);
+        priorityRequestQueue.add(freight);
+        priorityRequestQueue.add(standard);
+        priorityRequestQueue.add(accessibility);
+
+        assertThat(priorityRequestQueue.peek(10 * AGING_STEP_NANOS)).isSameAs(accessibility);
+    }
+
+    @Test
+    void standardBacklogDoesNotStarveFreight() {
+        Trip freight = trip(PriorityClass.FREIGHT, null, 0);
+        priorityRequestQueue.add(freight);
+
+        // Standard trips arrive twice as fast as they are dispatched, so the standard backlog never drains.
+        long dispatchedAtNanos = -1;
+        for (long now = 0; now < 20 * AGING_STEP_NANOS && dispatchedAtNanos < 0; now += AGING_STEP_NANOS / 2) {
+            priorityRequestQueue.add(trip(PriorityClass.STANDARD, null, now));
+            priorityRequestQueue.add(trip(PriorityClass.STANDARD, null, now));
+            Trip next = priorityRequestQueue.peek(now);
+            priorityRequestQueue.remove(next);
+            if (next == freight) {
+                dispatchedAtNanos = now;
+            }
+        }
+
+        assertThat(dispatchedAtNanos).isBetween(0L, 4 * AGING_STEP_NANOS);
+    }
+
+    @Test
+    void emergencyIsNeverPassedByAgedRequests() {
+        Trip freight = trip(PriorityClass.FREIGHT, Duration.ofNanos(AGING_STEP_NANOS), 0);
+        Trip emergency = trip(PriorityClass.EMERGENCY, null, 10 * AGING_STEP_NANOS);
+        priorityRequestQueue.add(freight);
+        priorityRequestQueue.add(emergency);
+
+        assertThat(priorityRequestQueue.peek(10 * AGING_STEP_NANOS)).isSameAs(emergency);
+    }
+
+    @Test
+    void requestAboutToMissLatencyTargetIsPromoted() {
+        Trip standard = trip(PriorityClass.STANDARD, null, 0);
+        Trip freight = trip(PriorityClass.FREIGHT, null, 0);
+        Trip urgentFreight = trip(PriorityClass.FREIGHT, Duration.ofNanos(5 * AGING_STEP_NANOS / 2), 0);
+        priorityRequestQueue.add(standard);
+        priorityRequestQueue.add(freight);
+        priorityRequestQueue.add(urgentFreight);
+
+        assertThat(priorityRequestQueue.peek(AGING_STEP_NANOS / 2)).isSameAs(standard);
+        // Within one aging step of its target, the trip behind the head of its level is promoted past every other trip.
+        assertThat(priorityRequestQueue.peek(3 * AGING_STEP_NANOS / 2)).isSameAs(urgentFreight);
+    }
+
+    @Test
+    void requestAboutToMissLatencyTargetPassesAgedRequests() {
+        Trip freight = trip(PriorityClass.FREIGHT, null, 0);
+        Trip accessibility = trip(PriorityClass.ACCESSIBILITY, null, 0);
+        Trip urgentStandard = trip(PriorityClass.STANDARD, Duration.ofNanos(2 * AGING_STEP_NANOS), 9 * AGING_STEP_NANOS);
+        priorityRequestQueue.add(freight);
+        priorityRequestQueue.add(accessibility);
+        priorityRequestQueue.add(urgentStandard);
+
+        assertThat(priorityRequestQueue.peek(9 * AGING_STEP_NANOS)).isSameAs(accessibility);
+        assertThat(priorityRequestQueue.peek(10 * AGING_STEP_NANOS)).isSameAs(urgentStandard);
+    }
+
+    private Trip trip(PriorityClass priority, Duration latencyTarget, long queuedAtNanos) {
+        return new Trip(new MoveRequest(1, 5, priority, latencyTarget), queuedAtNanos);
+    }
+}
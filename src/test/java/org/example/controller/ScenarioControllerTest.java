@@ -0,0 +1,101 @@
+package org.example.controller;
+
+import org.example.ScenarioConstraints;
+import org.example.PrioritySummary;
+import org.example.ScenarioResult;
+import org.example.export.BinaryTraceReader;
+import org.example.export.TraceFormat;
+import org.example.export.TraceTable;
+import org.example.model.MoveRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScenarioControllerTest {
+
+    private final ScenarioConstraints constraints = new ScenarioConstraints(10, 2, 8, 1, 2, 5);
+
+    @Test
+    void runCompletesOnceAllRequestsAreServed() throws Exception {
+        ScenarioController scenarioController = ScenarioController.builder()
+                .constraints(constraints)
+                .timeSlices(List.of(List.of(new MoveRequest(1, 5), new MoveRequest(0, 0), new MoveRequest(6, 2))))
+                .build();
+
+        ScenarioResult result = scenarioController.runAsync().get(5, TimeUnit.SECONDS);
+        assertThat(result.requestCount()).isEqualTo(2);
+        assertThat(result.constraints()).isEqualTo(constraints);
+    }
+
+    @Test
+    void eachRequestIsQueuedOnceWhenSliceSpansSeveralIntervals() throws Exception {
+        List<MoveRequest> requests = new ArrayList<>();
+        for (int i = 1; i < 10; i++) {
+            requests.add(new MoveRequest(i, i + 1));
+        }
+        requests.add(new MoveRequest(10, 1));
+        ScenarioController scenarioController = ScenarioController.builder()
+                .constraints(constraints)
+                .timeSlices(List.of(requests))
+                .build();
+
+        ScenarioResult result = scenarioController.runAsync().get(5, TimeUnit.SECONDS);
+        assertThat(result.requestCount()).isEqualTo(10);
+        assertThat(result.priorities().stream().mapToLong(PrioritySummary::tripCount).sum()).isEqualTo(10);
+    }
+
+    @Test
+    void controllerCanBeRunRepeatedly() throws Exception {
+        ScenarioController scenarioController = ScenarioController.builder()
+                .constraints(constraints)
+                .timeSlices(List.of(List.of(new MoveRequest(1, 3))))
+                .build();
+
+        for (int i = 0; i < 3; i++) {
+            ScenarioResult result = scenarioController.runAsync().get(5, TimeUnit.SECONDS);
+            assertThat(result.requestCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void emptyScenarioCompletesImmediately() throws Exception {
+        ScenarioController scenarioController = ScenarioController.builder()
+                .constraints(constraints)
+                .timeSlices(List.of())
+                .build();
+
+        ScenarioResult result = scenarioController.runAsync().get(1, TimeUnit.SECONDS);
+        assertThat(result.requestCount()).isEqualTo(0);
+    }
+
+    @Test
+    void traceIsCompleteWhenTheResultIsReturned(@TempDir Path directory) throws Exception {
+        ScenarioController scenarioController = ScenarioController.builder()
+                .constraints(constraints)
+                .timeSlices(List.of(List.of(new MoveRequest(1, 5), new MoveRequest(6, 2))))
+                .traceDirectory(directory)
+                .traceFormat(TraceFormat.BINARY)
+                .build();
+
+        ScenarioResult result = scenarioController.runAsync().get(5, TimeUnit.SECONDS);
+        assertThat(result.traceDroppedCount()).isZero();
+        assertThat(countRows(TraceFormat.BINARY.resolve(directory, TraceTable.TRIPS))).isEqualTo(2);
+        assertThat(countRows(TraceFormat.BINARY.resolve(directory, TraceTable.STEPS))).isGreaterThan(0);
+    }
+
+    private int countRows(Path path) throws Exception {
+        int rows = 0;
+        try (BinaryTraceReader reader = new BinaryTraceReader(path)) {
+            for (long[][] chunk = reader.readChunk(); chunk != null; chunk = reader.readChunk()) {
+                rows += chunk[0].length;
+            }
+        }
+        return rows;
+    }
+}
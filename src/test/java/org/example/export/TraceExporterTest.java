@@ -0,0 +1,102 @@
+package org.example.export;
+
+import org.example.model.Direction;
+import org.example.model.Elevator;
+import org.example.model.FleetState;
+import org.example.model.MoveRequest;
+import org.example.model.Trip;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TraceExporterTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void csvTraceHasHeaderAndRows() throws IOException {
+        Elevator elevator = new Elevator(1);
+        try (TraceExporter traceExporter = new TraceExporter(directory, TraceFormat.CSV)) {
+            traceExporter.recordAssignment(elevator, trip(3, 7));
+            traceExporter.recordTrip(elevator, trip(3, 7));
+        }
+
+        List<String> assignments = readCsv(TraceFormat.CSV.resolve(directory, TraceTable.ASSIGNMENTS));
+        assertThat(assignments).hasSize(2);
+        assertThat(assignments.get(0)).isEqualTo("time_ns,elevator_id,pickup_floor,target_floor");
+        assertThat(assignments.get(1)).endsWith(",1,3,7");
+
+        List<String> trips = readCsv(TraceFormat.CSV.resolve(directory, TraceTable.TRIPS));
+        assertThat(trips).hasSize(2);
+        assertThat(trips.get(1)).endsWith(",1,3,7,2000,5000");
+        assertThat(readCsv(TraceFormat.CSV.resolve(directory, TraceTable.STEPS))).hasSize(1);
+    }
+
+    @Test
+    void binaryTraceRoundTripsAcrossChunks() throws IOException {
+        int steps = TraceExporter.CHUNK_ROWS + 10;
+        Elevator elevator = new Elevator(2);
+        try (TraceExporter traceExporter = new TraceExporter(directory, TraceFormat.BINARY, steps)) {
+            for (int i = 0; i < steps; i++) {
+                elevator.setCurrentFloor(1 + i % 20);
+                elevator.setDirection(i % 40 < 20 ? Direction.UP : Direction.DOWN);
+                traceExporter.recordStep(elevator);
+            }
+            assertThat(traceExporter.getDroppedCount()).isZero();
+        }
+
+        try (BinaryTraceReader reader = new BinaryTraceReader(TraceFormat.BINARY.resolve(directory, TraceTable.STEPS))) {
+            assertThat(reader.getColumns()).isEqualTo(TraceTable.STEPS.getColumns());
+            int row = 0;
+            long previousTime = Long.MIN_VALUE;
+            for (long[][] chunk = reader.readChunk(); chunk != null; chunk = reader.readChunk()) {
+                for (int i = 0; i < chunk[0].length; i++, row++) {
+                    assertThat(chunk[0][i]).isGreaterThanOrEqualTo(previousTime);
+                    assertThat(chunk[1][i]).isEqualTo(2);
+                    assertThat(chunk[2][i]).isEqualTo(1 + row % 20);
+                    assertThat(chunk[3][i]).isEqualTo(row % 40 < 20 ? FleetState.DIRECTION_UP : FleetState.DIRECTION_DOWN);
+                    previousTime = chunk[0][i];
+                }
+            }
+            assertThat(row).isEqualTo(steps);
+        }
+    }
+
+    @Test
+    void eventsAfterCloseAreIgnored() throws IOException {
+        TraceExporter traceExporter = new TraceExporter(directory, TraceFormat.BINARY);
+        traceExporter.close();
+        traceExporter.recordStep(new Elevator(0));
+        assertThat(traceExporter.finish()).isZero();
+
+        try (BinaryTraceReader reader = new BinaryTraceReader(TraceFormat.BINARY.resolve(directory, TraceTable.STEPS))) {
+            assertThat(reader.readChunk()).isNull();
+        }
+        assertThat(traceExporter.getDroppedCount()).isZero();
+    }
+
+    private Trip trip(int pickupFloor, int targetFloor) {
+        Trip trip = new Trip(new MoveRequest(pickupFloor, targetFloor), 1_000);
+        trip.pickUp(3_000);
+        trip.complete(8_000);
+        return trip;
+    }
+
+    private List<String> readCsv(Path path) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(path)), StandardCharsets.US_ASCII))) {
+            return reader.lines().toList();
+        }
+    }
+}
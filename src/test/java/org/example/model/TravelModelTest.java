@@ -0,0 +1,35 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class TravelModelTest {
+
+    private final TravelModel travelModel = new TravelModel(1.0, 2.0, 3.0, 4.0, 0.5);
+
+    @Test
+    void shortRunNeverReachesRatedSpeed() {
+        // 3 m is less than the 4 m needed to reach 2 m/s and brake again.
+        assertThat(travelModel.travelSeconds(1)).isCloseTo(2 * Math.sqrt(3.0), within(1e-9));
+    }
+
+    @Test
+    void longRunCruisesAtRatedSpeed() {
+        // 30 m: 2 s accelerating, 2 s braking over 4 m, 26 m cruising at 2 m/s.
+        assertThat(travelModel.travelSeconds(10)).isCloseTo(4 + 13, within(1e-9));
+    }
+
+    @Test
+    void stopAddsDoorDwell() {
+        assertThat(travelModel.stepSeconds(0, true)).isEqualTo(4.0);
+        assertThat(travelModel.stepSeconds(10, true)).isCloseTo(21, within(1e-9));
+        assertThat(travelModel.stepSeconds(10, false)).isCloseTo(17, within(1e-9));
+    }
+
+    @Test
+    void idleStepTakesOneControlCycle() {
+        assertThat(travelModel.stepSeconds(0, false)).isEqualTo(0.5);
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.service;
+
+import org.example.model.MoveRequest;
+import org.example.model.Trip;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CostWeightTunerTest {
+
+    private final CostWeights initialWeights = new CostWeights(3, 10, 3);
+    private final ElevatorControllerService elevatorControllerService = new ElevatorControllerService(initialWeights);
+    private final CostWeightTuner costWeightTuner = new CostWeightTuner(elevatorControllerService, 1);
+
+    @Test
+    void lowerScoringCandidateIsAccepted() {
+        costWeightTuner.record(trip(40, 60));
+        costWeightTuner.onTimeSliceFinished(0);
+        CostWeights candidate = elevatorControllerService.getWeights();
+        assertThat(candidate).isNotEqualTo(initialWeights);
+
+        costWeightTuner.record(trip(20, 30));
+        costWeightTuner.onTimeSliceFinished(1);
+        assertThat(costWeightTuner.getIncumbent()).isEqualTo(candidate);
+        assertThat(elevatorControllerService.getWeights()).isEqualTo(candidate);
+    }
+
+    @Test
+    void higherScoringCandidateIsRejected() {
+        costWeightTuner.record(trip(40, 60));
+        costWeightTuner.onTimeSliceFinished(0);
+        assertThat(elevatorControllerService.getWeights()).isNotEqualTo(initialWeights);
+
+        costWeightTuner.record(trip(80, 60));
+        costWeightTuner.onTimeSliceFinished(1);
+        assertThat(costWeightTuner.getIncumbent()).isEqualTo(initialWeights);
+        assertThat(elevatorControllerService.getWeights()).isEqualTo(initialWeights);
+    }
+
+    @Test
+    void timeSliceWithoutTripsKeepsWeights() {
+        costWeightTuner.onTimeSliceFinished(0);
+        assertThat(elevatorControllerService.getWeights()).isEqualTo(initialWeights);
+    }
+
+    @Test
+    void tripsDispatchedWithPreviousWeightsAreNotScored() {
+        Trip incumbentTrip = trip(10, 10);
+        costWeightTuner.record(trip(40, 60));
+        costWeightTuner.onTimeSliceFinished(0);
+        CostWeights candidate = elevatorControllerService.getWeights();
+
+        // The candidate's own trips are slow, the fast trip still in flight from the incumbent's slice must not rescue it.
+        costWeightTuner.record(incumbentTrip);
+        costWeightTuner.record(trip(80, 60));
+        costWeightTuner.onTimeSliceFinished(1);
+        assertThat(costWeightTuner.getIncumbent()).isEqualTo(initialWeights).isNotEqualTo(candidate);
+    }
+
+    @Test
+    void tripsStillInFlightAreScoredByTheirTimeSoFar() {
+        costWeightTuner.record(trip(40, 60));
+        costWeightTuner.onTimeSliceFinished(0);
+        CostWeights candidate = elevatorControllerService.getWeights();
+
+        // The candidate's only fast trip completed, the slow one is still riding when the slice ends.
+        Trip slowTrip = new Trip(new MoveRequest(1, 5), System.nanoTime() - 1_000_000_000L);
+        slowTrip.setWeightsEpoch(elevatorControllerService.getWeightsEpoch());
+        costWeightTuner.recordAssignment(slowTrip);
+        costWeightTuner.record(trip(10, 10));
+        costWeightTuner.onTimeSliceFinished(1);
+        assertThat(costWeightTuner.getIncumbent()).isEqualTo(initialWeights).isNotEqualTo(candidate);
+    }
+
+    @Test
+    void candidatesStayWithinScenarioConstraints() {
+        ElevatorControllerService service = new ElevatorControllerService(new CostWeights(9, 10, 1));
+        CostWeightTuner tuner = new CostWeightTuner(service, 3);
+        for (int timeSlice = 0; timeSlice < 500; timeSlice++) {
+            Trip trip = new Trip(new MoveRequest(1, 5), 0);
+            trip.setWeightsEpoch(service.getWeightsEpoch());
+            trip.pickUp((timeSlice % 7) * 1_000_000L);
+            trip.complete(10_000_000L);
+            tuner.record(trip);
+            tuner.onTimeSliceFinished(timeSlice);
+
+            CostWeights weights = service.getWeights();
+            assertThat(weights.costPerFloor()).isLessThan(weights.costPerStop()).isLessThanOrEqualTo(10);
+            assertThat(weights.costPerStop()).isLessThanOrEqualTo(20);
+            assertThat(weights.costPerQueuedStop()).isBetween(1, 20);
+        }
+    }
+
+    private Trip trip(long waitMs, long rideMs) {
+        Trip trip = new Trip(new MoveRequest(1, 5), 0);
+        trip.setWeightsEpoch(elevatorControllerService.getWeightsEpoch());
+        trip.pickUp(waitMs * 1_000_000);
+        trip.complete((waitMs + rideMs) * 1_000_000);
+        return trip;
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.service;
+
+import org.example.model.Direction;
+import org.example.model.Elevator;
+import org.example.model.FleetState;
+import org.example.model.PriorityClass;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.example.model.FleetState.DIRECTION_DOWN;
+import static org.example.model.FleetState.DIRECTION_UP;
+
+public class DispatchCostTableTest {
+
+    private final CostWeights weights = new CostWeights(3, 10, 2);
+    private final ScalarFleetCostKernel scalarKernel = new ScalarFleetCostKernel();
+    private final DispatchCostTable dispatchCostTable = new DispatchCostTable(scalarKernel);
+    private final FleetState fleetState = new FleetState(3);
+    private final List<Elevator> elevators = new ArrayList<>();
+
+    DispatchCostTableTest() {
+        for (int i = 0; i < fleetState.getSize(); i++) {
+            Elevator elevator = new Elevator(i);
+            elevators.add(elevator);
+            fleetState.update(elevator);
+        }
+    }
+
+    @Test
+    void burstOfSameRequestIsAnsweredFromTable() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(findLowestCost(5, DIRECTION_UP)).isEqualTo(0);
+        }
+        assertThat(dispatchCostTable.getStatistics()).isEqualTo(new CostTableStatistics(9, 0, 1, 0));
+    }
+
+    @Test
+    void cheaperElevatorTakesOverEntry() {
+        assertThat(findLowestCost(5, DIRECTION_UP)).isEqualTo(0);
+
+        move(elevators.get(2), 4, Direction.NONE);
+        assertThat(findLowestCost(5, DIRECTION_UP)).isEqualTo(2);
+        assertThat(dispatchCostTable.getStatistics()).isEqualTo(new CostTableStatistics(0, 1, 1, 1));
+    }
+
+    @Test
+    void cheapestElevatorGettingMoreExpensiveIsReevaluated() {
+        assertThat(findLowestCost(5, DIRECTION_UP)).isEqualTo(0);
+
+        elevators.get(0).getUpQueue().add(8);
+        move(elevators.get(0), 6, Direction.UP);
+        assertThat(findLowestCost(5, DIRECTION_UP)).isEqualTo(1);
+        assertThat(dispatchCostTable.getStatistics()).isEqualTo(new CostTableStatistics(0, 1, 1, 1));
+    }
+
+    @Test
+    void changesToMoreCarsThanRefreshLimitAreEvaluatedByKernel() {
+        assertThat(findLowestCost(5, DIRECTION_UP)).isEqualTo(0);
+
+        // A fleet of 3 refreshes at most 1 changed car.
+        move(elevators.get(1), 4, Direction.NONE);
+        move(elevators.get(2), 5, Direction.NONE);
+        assertThat(findLowestCost(5, DIRECTION_UP)).isEqualTo(2);
+        assertThat(dispatchCostTable.getStatistics()).isEqualTo(new CostTableStatistics(0, 0, 2, 0));
+    }
+
+    @Test
+    void replacedWeightsInvalidateEntry() {
+        assertThat(findLowestCost(5, DIRECTION_UP)).isEqualTo(0);
+
+        CostWeights replaced = new CostWeights(1, 10, 2);
+        assertThat(dispatchCostTable.findLowestCost(fleetState, 5, DIRECTION_UP, PriorityClass.STANDARD, replaced)).isEqualTo(0);
+        assertThat(dispatchCostTable.getStatistics()).isEqualTo(new CostTableStatistics(0, 0, 2, 0));
+    }
+
+    @Test
+    void unchangedStateKeepsVersion() {
+        long version = fleetState.getVersion();
+        fleetState.update(elevators.get(1));
+        assertThat(fleetState.getVersion()).isEqualTo(version);
+    }
+
+    @Test
+    void changeLogListsChangedSlotsUntilOverwritten() {
+        long version = fleetState.getVersion();
+        move(elevators.get(2), 4, Direction.UP);
+        move(elevators.get(0), 6, Direction.DOWN);
+
+        int[] slots = new int[4];
+        assertThat(fleetState.getChangedSlots(version, fleetState.getVersion(), slots)).isEqualTo(2);
+        assertThat(slots[0]).isEqualTo(2);
+        assertThat(slots[1]).isEqualTo(0);
+
+        for (int i = 0; i < 100; i++) {
+            move(elevators.get(1), 1 + i % 2, Direction.NONE);
+        }
+        slots = new int[128];
+        assertThat(fleetState.getChangedSlots(version, version + 2, slots)).isEqualTo(-1);
+    }
+
+    @Test
+    void tableAgreesWithKernelAsFleetChanges() {
+        Random random = new Random(7);
+        int floorCount = 12;
+        for (int i = 0; i < 5_000; i++) {
+            if (random.nextInt(4) == 0) {
+                Elevator elevator = elevators.get(random.nextInt(elevators.size()));
+                if (random.nextBoolean()) {
+                    elevator.getUpQueue().add(1 + random.nextInt(floorCount));
+                } else {
+                    elevator.getDownQueue().clear();
+                }
+                move(elevator, 1 + random.nextInt(floorCount), Direction.values()[random.nextInt(Direction.values().length)]);
+            }
+
+            int pickupFloor = 1 + random.nextInt(floorCount);
+            int requestDirection = random.nextBoolean() ? DIRECTION_UP : DIRECTION_DOWN;
+            PriorityClass priority = PriorityClass.values()[random.nextInt(PriorityClass.values().length)];
+            CostWeights priorityWeights = weights.forPriority(priority);
+            assertThat(dispatchCostTable.findLowestCost(fleetState, pickupFloor, requestDirection, priority, priorityWeights))
+                    .isEqualTo(ElevatorControllerServiceTest.lowestSlot(scalarKernel, fleetState, pickupFloor, requestDirection, priorityWeights));
+        }
+        assertThat(dispatchCostTable.getStatistics().hits()).isPositive();
+        assertThat(dispatchCostTable.getStatistics().refreshes()).isPositive();
+    }
+
+    private int findLowestCost(int pickupFloor, int requestDirection) {
+        return dispatchCostTable.findLowestCost(fleetState, pickupFloor, requestDirection, PriorityClass.STANDARD, weights);
+    }
+
+    private void move(Elevator elevator, int floor, Direction direction) {
+        elevator.setCurrentFloor(floor);
+        elevator.setDirection(direction);
+        fleetState.update(elevator);
+    }
+}
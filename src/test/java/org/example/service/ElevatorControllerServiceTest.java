@@ -2,10 +2,18 @@ package org.example.service;
 
 import org.example.controller.ElevatorController;
 import org.example.model.Direction;
+import org.example.model.Elevator;
+import org.example.model.FleetState;
 import org.example.model.MoveRequest;
+import org.example.model.PriorityClass;
+import org.example.model.Trip;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -13,11 +21,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 public class ElevatorControllerServiceTest {
 
     private final ElevatorControllerService elevatorControllerService = new ElevatorControllerService(1, 1);
+    private final FleetState singleElevatorState = new FleetState(1);
     private ElevatorController elevatorController;
 
     @BeforeEach
     void setUp() {
-        elevatorController = new ElevatorController(1, 10, new AtomicBoolean(false));
+        elevatorController = new ElevatorController(0, 10, singleElevatorState, new AtomicBoolean(false));
     }
 
     @Test
@@ -29,7 +38,7 @@ public class ElevatorControllerServiceTest {
 
         request = new MoveRequest(5, 1);
         elevatorController.queueRequest(request);
-        assertThat(elevatorControllerService.isValidElevator(elevatorController, request)).isEqualTo(false);
+        assertThat(isValid(request)).isEqualTo(false);
     }
 
     @Test
@@ -40,13 +49,13 @@ public class ElevatorControllerServiceTest {
         assertThat(elevatorController.getElevator().getDirection()).isEqualTo(Direction.UP);
 
         elevatorController.queueRequest(request);
-        assertThat(elevatorControllerService.isValidElevator(elevatorController, request)).isEqualTo(false);
+        assertThat(isValid(request)).isEqualTo(false);
     }
 
     @Test
     void noDirectionIsValid() {
         MoveRequest request = new MoveRequest(1, 5);
-        assertThat(elevatorControllerService.isValidElevator(elevatorController, request)).isEqualTo(true);
+        assertThat(isValid(request)).isEqualTo(true);
     }
 
     @Test
@@ -58,6 +67,128 @@ public class ElevatorControllerServiceTest {
         assertThat(elevatorController.getElevator().getDirection()).isEqualTo(Direction.UP);
 
         request = new MoveRequest(5, 10);
-        assertThat(elevatorControllerService.isValidElevator(elevatorController, request)).isEqualTo(true);
+        assertThat(isValid(request)).isEqualTo(true);
+    }
+
+    @Test
+    void findBestElevatorPrefersClosestIdleElevator() {
+        FleetState fleetState = new FleetState(3);
+        List<ElevatorController> elevatorControllers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            elevatorControllers.add(new ElevatorController(i, 10, fleetState, new AtomicBoolean(false)));
+        }
+        elevatorControllers.get(2).queueRequest(new MoveRequest(1, 6));
+        moveElevator(elevatorControllers.get(2));
+
+        OptionalInt bestElevatorId = elevatorControllerService.findBestElevator(fleetState, new MoveRequest(7, 9));
+        assertThat(bestElevatorId).hasValue(2);
+    }
+
+    @Test
+    void higherPriorityAvoidsElevatorWithQueuedStops() {
+        ElevatorControllerService service = new ElevatorControllerService(new CostWeights(2, 10, 2));
+        FleetState fleetState = new FleetState(2);
+        // Elevator 0 is one floor below the pickup with two stops queued, elevator 1 is idle four floors below.
+        publish(fleetState, 0, 4, Direction.UP, 2, 0);
+        publish(fleetState, 1, 1, Direction.NONE, 0, 0);
+
+        assertThat(service.findBestElevator(fleetState, new MoveRequest(5, 9))).hasValue(0);
+        assertThat(service.findBestElevator(fleetState, new MoveRequest(5, 9, PriorityClass.EMERGENCY, null))).hasValue(1);
+    }
+
+    @Test
+    void vectorAndScalarKernelsAgree() {
+        ElevatorControllerService scalarService = new ElevatorControllerService(new CostWeights(3, 10, 2), new ScalarFleetCostKernel());
+        ElevatorControllerService vectorService = new ElevatorControllerService(new CostWeights(3, 10, 2), new VectorFleetCostKernel());
+
+        Random random = new Random(42);
+        int elevatorCount = 150;
+        int floorCount = 150;
+        FleetState fleetState = new FleetState(elevatorCount);
+        for (int i = 0; i < elevatorCount; i++) {
+            publish(fleetState, i, 1 + random.nextInt(floorCount), Direction.values()[random.nextInt(3)],
+                    random.nextInt(5), random.nextInt(5));
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            int currentFloor = 1 + random.nextInt(floorCount);
+            int targetFloor = 1 + random.nextInt(floorCount);
+            if (currentFloor == targetFloor) {
+                continue;
+            }
+            MoveRequest request = new MoveRequest(currentFloor, targetFloor);
+            assertThat(vectorService.findBestElevator(fleetState, request))
+                    .isEqualTo(scalarService.findBestElevator(fleetState, request));
+        }
+    }
+
+    @Test
+    void burstDispatchedThroughAssignReusesCostTable() {
+        ScalarFleetCostKernel scalarKernel = new ScalarFleetCostKernel();
+        ElevatorControllerService service = new ElevatorControllerService(new CostWeights(3, 10, 2), scalarKernel);
+        FleetState fleetState = new FleetState(8);
+        List<ElevatorController> elevatorControllers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            elevatorControllers.add(new ElevatorController(i, 20, fleetState, new AtomicBoolean(false)));
+        }
+
+        // A morning burst from the lobby and two upper floors, every assignment changes the state of one car.
+        int[] pickupFloors = {1, 10, 15};
+        for (int i = 0; i < 60; i++) {
+            int pickupFloor = pickupFloors[i % pickupFloors.length];
+            MoveRequest request = new MoveRequest(pickupFloor, pickupFloor == 1 ? 2 + i % 18 : 1);
+            int expectedSlot = lowestSlot(scalarKernel, fleetState, pickupFloor, FleetState.toCode(request.getDirection()), service.getWeights());
+
+            Trip trip = new Trip(request, System.nanoTime());
+            OptionalInt bestElevatorId = service.findBestElevator(fleetState, trip);
+            assertThat(bestElevatorId).isEqualTo(expectedSlot < 0 ? OptionalInt.empty() : OptionalInt.of(expectedSlot));
+            if (bestElevatorId.isPresent()) {
+                elevatorControllers.get(bestElevatorId.getAsInt()).assign(trip);
+            }
+            if (i % 10 == 9) {
+                elevatorControllers.get(i / 10).move();
+            }
+        }
+
+        assertThat(service.getCostTableStatistics()).isEqualTo(new CostTableStatistics(24, 11, 25, 11));
+    }
+
+    /**
+     * @return true if both kernels find the elevator valid for the request, false if neither does.
+     */
+    private boolean isValid(MoveRequest request) {
+        int pickupFloor = request.currentFloor();
+        int requestDirection = FleetState.toCode(request.getDirection());
+        CostWeights weights = elevatorControllerService.getWeights();
+        int scalarSlot = lowestSlot(new ScalarFleetCostKernel(), singleElevatorState, pickupFloor, requestDirection, weights);
+        int vectorSlot = lowestSlot(new VectorFleetCostKernel(), singleElevatorState, pickupFloor, requestDirection, weights);
+        assertThat(vectorSlot).isEqualTo(scalarSlot);
+        return scalarSlot >= 0;
+    }
+
+    static int lowestSlot(FleetCostKernel kernel, FleetState fleetState, int pickupFloor, int requestDirection, CostWeights weights) {
+        int[] costs = new int[fleetState.getSize()];
+        kernel.evaluate(fleetState, pickupFloor, requestDirection, weights, costs);
+        return kernel.lowestSlot(costs, costs.length);
+    }
+
+    private void publish(FleetState fleetState, int elevatorId, int floor, Direction direction, int upStops, int downStops) {
+        Elevator elevator = new Elevator(elevatorId);
+        elevator.setCurrentFloor(floor);
+        elevator.setDirection(direction);
+        // Only the number of queued stops is published, not the floors.
+        for (int i = 0; i < upStops; i++) {
+            elevator.getUpQueue().add(i + 1);
+        }
+        for (int i = 0; i < downStops; i++) {
+            elevator.getDownQueue().add(i + 1);
+        }
+        fleetState.update(elevator);
+    }
+
+    private void moveElevator(ElevatorController elevatorController) {
+        while (elevatorController.move() != Direction.NONE) {
+            // Move until the elevator stops.
+        }
     }
 }